@@ -3,25 +3,48 @@ package mygame.core;
 import com.jme3.app.SimpleApplication;
 import com.jme3.asset.AssetManager;
 import com.jme3.bullet.BulletAppState;
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.collision.PhysicsCollisionObject;
 import com.jme3.bullet.collision.shapes.CollisionShape;
 import com.jme3.bullet.control.RigidBodyControl;
 import com.jme3.bullet.util.CollisionShapeFactory;
 import com.jme3.material.Material;
+import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.shape.Box;
+import mygame.utils.CollisionProxyBuilder;
+import mygame.utils.CollisionShapeCache;
+import mygame.utils.Constants;
 
+/**
+ * Subsistema de física: Bullet en modo PARALLEL, broadphase AxisSweep3 acotado al
+ * mapa y grupos de colisión por tipo de actor.
+ *
+ * En PARALLEL, BulletAppState.render() lanza el paso en el hilo de física y
+ * postRender() espera a que acabe antes de cerrar el frame, así que el paso solo se
+ * solapa con el render de la escena. Por eso los proxies de enemigos, el jugador y
+ * el castillo se escriben sin bloqueos, siempre desde update o desde los listeners
+ * de input (que corren dentro del update); nunca desde render() de un AppState ni
+ * desde un SceneProcessor. PhysicsBenchmark cuenta los pasos solapados con la lógica.
+ */
 public class GamePhysics {
+    private final SimpleApplication app;
     private BulletAppState bulletAppState;
     private Node physicsNode;
+    private final PhysicsStepTimer stepTimer = new PhysicsStepTimer();
 
     public GamePhysics(SimpleApplication app, AssetManager assetManager, Node rootNode) {
-        bulletAppState = new BulletAppState();
+        this.app = app;
+        bulletAppState = new BulletAppState(getWorldMin(), getWorldMax(), PhysicsSpace.BroadphaseType.AXIS_SWEEP_3);
+        bulletAppState.setThreadingType(BulletAppState.ThreadingType.PARALLEL);
         bulletAppState.setDebugEnabled(false);
+        // attach arranca la física (y su hilo en modo PARALLEL) y crea el PhysicsSpace
         app.getStateManager().attach(bulletAppState);
         
-        bulletAppState.getPhysicsSpace().setGravity(new com.jme3.math.Vector3f(0, -15f, 0));
+        bulletAppState.getPhysicsSpace().setGravity(new Vector3f(0, -15f, 0));
+        bulletAppState.getPhysicsSpace().addTickListener(stepTimer);
         
         physicsNode = new Node("PhysicsNode");
         rootNode.attachChild(physicsNode);
@@ -32,13 +55,26 @@ public class GamePhysics {
     private void loadPhysicsObjects(AssetManager assetManager) {
         try {
             // Solo cargar el mapa ahora
-            Spatial mapModel = assetManager.loadModel("Models/Environment/Mapa.j3o");
+            Spatial mapModel = assetManager.loadModel(Constants.MAP_MODEL);
             if (mapModel != null) {
                 mapModel.setLocalScale(1f);
                 mapModel.setLocalTranslation(0, 0, 0);
                 
-                CollisionShape mapShape = CollisionShapeFactory.createMeshShape(mapModel);
+                CollisionShapeCache shapeCache = new CollisionShapeCache(assetManager);
+                CollisionShape mapShape;
+                if (Constants.USE_COLLISION_PROXIES) {
+                    // El heightfield muestrea el rectángulo del mapa: sus límites también entran en la clave
+                    mapShape = shapeCache.getShape(Constants.MAP_MODEL, mapModel, "heightfield",
+                        () -> CollisionProxyBuilder.buildHeightfield(mapModel,
+                            Constants.GROUND_HEIGHTFIELD_SIZE, Constants.GROUND_HEIGHTFIELD_MARGIN),
+                        Constants.GROUND_HEIGHTFIELD_SIZE, Constants.GROUND_HEIGHTFIELD_MARGIN,
+                        Constants.GROUND_HEIGHTFIELD_COLLISION_MARGIN,
+                        Constants.MAP_MIN_X, Constants.MAP_MAX_X, Constants.MAP_MIN_Z, Constants.MAP_MAX_Z);
+                } else {
+                    mapShape = shapeCache.getMeshShape(Constants.MAP_MODEL, mapModel);
+                }
                 RigidBodyControl mapPhysics = new RigidBodyControl(mapShape, 0);
+                setStaticGroup(mapPhysics);
                 
                 mapModel.addControl(mapPhysics);
                 bulletAppState.getPhysicsSpace().add(mapPhysics);
@@ -46,7 +82,7 @@ public class GamePhysics {
                 
                 System.out.println("✅ Mapa cargado y configurado con física");
             } else {
-                System.out.println("❌ No se pudo cargar Models/Environment/Mapa.j3o");
+                System.out.println("❌ No se pudo cargar " + Constants.MAP_MODEL);
             }
         } catch (Exception e) {
             System.out.println("❌ Error cargando el mapa: " + e.getMessage());
@@ -70,6 +106,7 @@ public class GamePhysics {
             
             CollisionShape groundShape = CollisionShapeFactory.createBoxShape(groundGeom);
             RigidBodyControl groundPhysics = new RigidBodyControl(groundShape, 0);
+            setStaticGroup(groundPhysics);
             
             groundGeom.addControl(groundPhysics);
             bulletAppState.getPhysicsSpace().add(groundPhysics);
@@ -84,13 +121,61 @@ public class GamePhysics {
         }
     }
 
+    /**
+     * Esquina mínima del mundo físico: el mapa más un margen (límites de AxisSweep3).
+     */
+    public static Vector3f getWorldMin() {
+        return new Vector3f(
+            Constants.MAP_MIN_X - Constants.PHYSICS_WORLD_MARGIN,
+            Constants.PHYSICS_WORLD_MIN_Y,
+            Constants.MAP_MIN_Z - Constants.PHYSICS_WORLD_MARGIN);
+    }
+
+    public static Vector3f getWorldMax() {
+        return new Vector3f(
+            Constants.MAP_MAX_X + Constants.PHYSICS_WORLD_MARGIN,
+            Constants.PHYSICS_WORLD_MAX_Y,
+            Constants.MAP_MAX_Z + Constants.PHYSICS_WORLD_MARGIN);
+    }
+
+    /**
+     * Escenario estático: solo necesita colisionar con el jugador.
+     */
+    public static void setStaticGroup(PhysicsCollisionObject object) {
+        object.setCollisionGroup(Constants.COLLISION_GROUP_STATIC);
+        object.setCollideWithGroups(Constants.COLLISION_GROUP_PLAYER);
+    }
+
+    /**
+     * El jugador choca con el escenario y detecta a los enemigos.
+     */
+    public static void setPlayerGroup(PhysicsCollisionObject object) {
+        object.setCollisionGroup(Constants.COLLISION_GROUP_PLAYER);
+        object.setCollideWithGroups(Constants.COLLISION_GROUP_STATIC | Constants.COLLISION_GROUP_ENEMY);
+    }
+
+    /**
+     * Proxies de enemigos: solo se solapan con el jugador, nunca entre ellos ni con el escenario.
+     */
+    public static void setEnemyGroup(PhysicsCollisionObject object) {
+        object.setCollisionGroup(Constants.COLLISION_GROUP_ENEMY);
+        object.setCollideWithGroups(Constants.COLLISION_GROUP_PLAYER);
+    }
+
     public void cleanup() {
         if (bulletAppState != null) {
+            bulletAppState.getPhysicsSpace().removeTickListener(stepTimer);
             bulletAppState.getPhysicsSpace().removeAll(physicsNode);
             physicsNode.removeFromParent();
+            // Para el hilo de física de este estado antes de crear otro
+            app.getStateManager().detach(bulletAppState);
         }
     }
 
+    public PhysicsStepTimer getStepTimer() {
+        return stepTimer;
+    }
+
     public void setDebugEnabled(boolean enabled) {
         if (bulletAppState != null) {
             bulletAppState.setDebugEnabled(enabled);
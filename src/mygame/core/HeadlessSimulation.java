@@ -0,0 +1,261 @@
+package mygame.core;
+
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import mygame.entities.Castle;
+import mygame.entities.Tower;
+import mygame.systems.CapacityTracker;
+import mygame.systems.EnemyManager;
+import mygame.systems.ProjectileSystem;
+import mygame.systems.TargetingMode;
+import mygame.systems.TowerManager;
+import mygame.systems.WaveCampaign;
+import mygame.utils.Constants;
+
+/**
+ * Ejecuta una partida completa (todas las oleadas de la campaña) sin ventana, GPU ni carga de modelos,
+ * tan rápido como permita la CPU. Pensado para pruebas de balance y de capacidad.
+ *
+ * Argumentos (todos opcionales):
+ *   --seed=N          semilla del generador aleatorio
+ *   --layout=LISTA    torres a colocar, "oleada:TIPO:punto" separadas por comas,
+ *                     p. ej. "0:ATTACK:2,0:SLOW:6,1:ATTACK:9"
+ *   --rate=N          ticks de simulación por segundo
+ *   --max-time=S      tiempo simulado máximo en segundos
+ *   --targeting=MODO  objetivo de las torres de ataque (FIRST, LAST, STRONGEST, WEAKEST, NEAREST)
+ *   --waves=FICHERO   campaña de oleadas en JSON (por defecto assets/Waves/campaign.json)
+ *   --endless         modo infinito con la curva por defecto (ignora --waves)
+ *   --castle-health=N vida del castillo, para pruebas de capacidad largas
+ *   --capacity-ramp   modo infinito sin tope de ritmo hasta que los ticks se salen del
+ *                     presupuesto durante CAPACITY_RAMP_STOP_WINDOWS ventanas seguidas
+ */
+public class HeadlessSimulation {
+    private static final String DEFAULT_LAYOUT = "0:ATTACK:6,0:ATTACK:8,1:ATTACK:7,1:ATTACK:9,2:SLOW:4,2:ATTACK:5";
+    private static final float DEFAULT_MAX_TIME = 1800f;
+    // El jugador no existe en modo headless; se coloca lejos de los puntos de torre
+    private static final Vector3f NO_PLAYER_POSITION = new Vector3f(1000f, 0f, 1000f);
+
+    private final long seed;
+    private final int tickRate;
+    private final float maxSimulatedTime;
+    private final List<TowerPlacement> pendingPlacements;
+    private TargetingMode targeting = TargetingMode.FIRST;
+    private Path campaignFile = Paths.get("assets", Constants.WAVE_CAMPAIGN_FILE);
+    private boolean endless = false;
+    private boolean capacityRamp = false;
+    private int castleHealth = 0;
+    private final CapacityTracker capacityTracker =
+        new CapacityTracker(Constants.ENDLESS_FRAME_BUDGET, Constants.ENDLESS_CAPACITY_WINDOW);
+
+    public HeadlessSimulation(long seed, String layout, int tickRate, float maxSimulatedTime) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.maxSimulatedTime = maxSimulatedTime;
+        this.pendingPlacements = parseLayout(layout);
+    }
+
+    public void run() {
+        Node rootNode = new Node("HeadlessRoot");
+        Castle castle = new Castle();
+        if (castleHealth > 0) {
+            castle.setMaxHealth(castleHealth);
+        }
+        EnemyManager enemyManager = new EnemyManager(null, rootNode, castle);
+        enemyManager.setRandomSeed(seed);
+        enemyManager.setDespawnOnArrival(capacityRamp);
+        int laneCount = enemyManager.getPaths().length;
+        if (capacityRamp) {
+            enemyManager.setCampaign(WaveCampaign.createCapacityRamp(laneCount));
+        } else {
+            enemyManager.setCampaign(endless
+                ? WaveCampaign.createEndless(laneCount)
+                : WaveCampaign.load(campaignFile, laneCount));
+        }
+        TowerManager towerManager = new TowerManager(null, rootNode);
+        towerManager.setPaths(enemyManager.getPaths());
+        towerManager.setDefaultTargeting(targeting);
+        enemyManager.setTowerManager(towerManager);
+
+        float step = 1f / tickRate;
+        long ticks = 0;
+        float simulatedTime = 0f;
+        long startNanos = System.nanoTime();
+
+        while (!enemyManager.isGameWon() && !castle.isDestroyed() && simulatedTime < maxSimulatedTime
+                && !capacityExceeded()) {
+            long tickStart = System.nanoTime();
+            enemyManager.update(step);
+            towerManager.update(step, NO_PLAYER_POSITION, enemyManager);
+            placeScheduledTowers(enemyManager, towerManager);
+            towerManager.updateTowers(step, enemyManager);
+            capacityTracker.record((System.nanoTime() - tickStart) / 1e9f, step,
+                enemyManager.getMovingEnemyCount());
+
+            ticks++;
+            simulatedTime = ticks * step;
+        }
+
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+        printSummary(enemyManager, towerManager, castle, ticks, simulatedTime, wallSeconds);
+    }
+
+    public void setTargeting(TargetingMode targeting) {
+        this.targeting = targeting;
+    }
+
+    public void setCampaignFile(Path campaignFile) {
+        this.campaignFile = campaignFile;
+    }
+
+    public void setEndless(boolean endless) {
+        this.endless = endless;
+    }
+
+    public void setCastleHealth(int castleHealth) {
+        this.castleHealth = castleHealth;
+    }
+
+    public void setCapacityRamp(boolean capacityRamp) {
+        this.capacityRamp = capacityRamp;
+    }
+
+    private boolean capacityExceeded() {
+        return capacityRamp && capacityTracker.getOverBudgetWindows() >= Constants.CAPACITY_RAMP_STOP_WINDOWS;
+    }
+
+    private void placeScheduledTowers(EnemyManager enemyManager, TowerManager towerManager) {
+        if (!enemyManager.isInCountdown() || pendingPlacements.isEmpty()) return;
+
+        int window = enemyManager.getNextWaveIndex();
+        for (int i = 0; i < pendingPlacements.size(); i++) {
+            TowerPlacement placement = pendingPlacements.get(i);
+            if (placement.wave != window) continue;
+
+            Vector3f point = Constants.TOWER_PLACEMENT_POINTS[placement.pointIndex];
+            if (towerManager.placeTowerAt(placement.type, point)) {
+                pendingPlacements.remove(i);
+                i--;
+            }
+        }
+    }
+
+    private void printSummary(EnemyManager enemyManager, TowerManager towerManager, Castle castle,
+                              long ticks, float simulatedTime, double wallSeconds) {
+        String result;
+        if (capacityExceeded()) {
+            result = "PRESUPUESTO SUPERADO con " + enemyManager.getMovingEnemyCount() + " enemigos en marcha";
+        } else if (enemyManager.isGameWon()) {
+            result = "VICTORIA";
+        } else if (castle.isDestroyed()) {
+            result = "DERROTA";
+        } else {
+            result = "TIEMPO AGOTADO";
+        }
+
+        System.out.println("=== RESULTADO DE LA SIMULACIÓN HEADLESS ===");
+        System.out.println("Semilla: " + seed);
+        System.out.println("Resultado: " + result);
+        System.out.println("Objetivo de las torres: " + targeting);
+        System.out.println("Oleada alcanzada: " + (enemyManager.getCurrentWaveIndex() + 1));
+        System.out.println("Torres colocadas: " + towerManager.getTotalTowersPlaced()
+            + " (sin colocar: " + pendingPlacements.size() + ")");
+        System.out.println(String.format("Ticks de torre ahorrados durmiendo: %.1f%%",
+            towerManager.getSleepRatio() * 100f));
+        ProjectileSystem projectiles = towerManager.getProjectiles();
+        System.out.println("Proyectiles: pico " + projectiles.getPeakCount() + " en vuelo, pool de "
+            + projectiles.getCapacity() + " slots ampliado " + projectiles.getGrowCount() + " veces");
+        System.out.println("Enemigos filtrados al castillo: " + enemyManager.getLeakedEnemies());
+        System.out.println(String.format("Enemigos en marcha (sin contar el asedio): pico %d, %d sostenidos con ticks de menos de %.1f ms"
+            + " (peor tick %.2f ms)", capacityTracker.getPeakEnemies(), capacityTracker.getPeakSustained(),
+            Constants.ENDLESS_FRAME_BUDGET * 1000f, capacityTracker.getWorstFrame() * 1000f));
+        System.out.println("Vida del castillo: " + castle.getCurrentHealth() + "/" + castle.getMaxHealth());
+        System.out.println(String.format("Tiempo simulado hasta el final: %.1f s", simulatedTime));
+        System.out.println(String.format("Ticks simulados: %d a %d Hz (%.0f ticks/s reales, %.1fx tiempo real)",
+            ticks, tickRate, ticks / wallSeconds, simulatedTime / wallSeconds));
+    }
+
+    private static List<TowerPlacement> parseLayout(String layout) {
+        List<TowerPlacement> placements = new ArrayList<>();
+        if (layout == null || layout.isBlank()) {
+            return placements;
+        }
+
+        for (String entry : layout.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Entrada de layout inválida: " + entry);
+            }
+
+            int wave = Integer.parseInt(parts[0]);
+            Tower.TowerType type = Tower.TowerType.valueOf(parts[1].toUpperCase());
+            int pointIndex = Integer.parseInt(parts[2]);
+            if (pointIndex < 0 || pointIndex >= Constants.TOWER_PLACEMENT_POINTS.length) {
+                throw new IllegalArgumentException("Punto de colocación inexistente: " + pointIndex);
+            }
+            placements.add(new TowerPlacement(wave, type, pointIndex));
+        }
+        return placements;
+    }
+
+    public static void main(String[] args) {
+        long seed = 42L;
+        String layout = DEFAULT_LAYOUT;
+        int tickRate = Constants.SIMULATION_TICK_RATE;
+        float maxTime = DEFAULT_MAX_TIME;
+        TargetingMode targeting = TargetingMode.FIRST;
+        String waves = null;
+        boolean endless = false;
+        boolean capacityRamp = false;
+        int castleHealth = 0;
+
+        for (String arg : args) {
+            if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--layout=")) {
+                layout = arg.substring("--layout=".length());
+            } else if (arg.startsWith("--rate=")) {
+                tickRate = Integer.parseInt(arg.substring("--rate=".length()));
+            } else if (arg.startsWith("--max-time=")) {
+                maxTime = Float.parseFloat(arg.substring("--max-time=".length()));
+            } else if (arg.startsWith("--targeting=")) {
+                targeting = TargetingMode.valueOf(arg.substring("--targeting=".length()).toUpperCase());
+            } else if (arg.startsWith("--waves=")) {
+                waves = arg.substring("--waves=".length());
+            } else if (arg.equals("--endless")) {
+                endless = true;
+            } else if (arg.equals("--capacity-ramp")) {
+                capacityRamp = true;
+            } else if (arg.startsWith("--castle-health=")) {
+                castleHealth = Integer.parseInt(arg.substring("--castle-health=".length()));
+            } else {
+                System.err.println("Argumento desconocido: " + arg);
+            }
+        }
+
+        HeadlessSimulation simulation = new HeadlessSimulation(seed, layout, tickRate, maxTime);
+        simulation.setTargeting(targeting);
+        if (waves != null) {
+            simulation.setCampaignFile(Paths.get(waves));
+        }
+        simulation.setEndless(endless);
+        simulation.setCapacityRamp(capacityRamp);
+        simulation.setCastleHealth(castleHealth);
+        simulation.run();
+    }
+
+    private static class TowerPlacement {
+        final int wave;
+        final Tower.TowerType type;
+        final int pointIndex;
+
+        TowerPlacement(int wave, Tower.TowerType type, int pointIndex) {
+            this.wave = wave;
+            this.type = type;
+            this.pointIndex = pointIndex;
+        }
+    }
+}
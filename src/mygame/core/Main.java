@@ -12,17 +12,25 @@ import com.jme3.scene.Spatial;
 import mygame.entities.Castle;
 import mygame.entities.Player;
 import mygame.entities.Tower;
+import mygame.systems.CapacityTracker;
 import mygame.systems.EnemyManager;
 import mygame.systems.TowerManager;
+import mygame.systems.WaveCampaign;
 import mygame.ui.GameHealthDisplay;
 import mygame.ui.GameOverState;
+import mygame.ui.MenuScreen;
 import mygame.ui.VictoryState;
 import mygame.ui.TowerUI;
 import mygame.ui.WaveCountdownUI;
+import mygame.utils.AssetPreloader;
 import mygame.utils.Constants;
 
 public class Main extends SimpleApplication {
     private EnemyManager enemyManager;
+    // Oleadas cargadas del fichero de campaña; no cambian entre partidas
+    private WaveCampaign waveCampaign;
+    // Elegido en el menú: carga las oleadas del modo infinito en lugar de la campaña
+    private boolean endlessMode = false;
     private TowerManager towerManager;
     private Player player;
     private GamePhysics gamePhysics;
@@ -32,6 +40,12 @@ public class Main extends SimpleApplication {
     private VictoryState victoryState;
     private TowerUI towerUI;
     private WaveCountdownUI waveCountdownUI;
+    private AssetPreloader assetPreloader;
+    private final SimulationClock simulationClock =
+        new SimulationClock(Constants.SIMULATION_TICK_RATE, Constants.SIMULATION_MAX_STEPS_PER_FRAME);
+    // Enemigos en marcha que aguanta la partida a 60 FPS (útil en el modo infinito)
+    private final CapacityTracker capacityTracker =
+        new CapacityTracker(Constants.ENDLESS_FRAME_BUDGET, Constants.ENDLESS_CAPACITY_WINDOW);
 
     private boolean moveUp, moveDown, moveLeft, moveRight;
     private Vector3f walkDirection = new Vector3f();
@@ -42,13 +56,34 @@ public class Main extends SimpleApplication {
    
     @Override
     public void simpleInitApp() {
+        viewPort.setBackgroundColor(ColorRGBA.Black);
+        flyCam.setEnabled(false);
+
+        // Los modelos se cargan en segundo plano mientras se muestra la pantalla de carga
+        assetPreloader = new AssetPreloader(assetManager, AssetPreloader.collectGameModelPaths());
+        assetPreloader.start();
+        stateManager.attach(new MenuScreen(this, assetPreloader));
+    }
+
+    public void setEndlessMode(boolean endlessMode) {
+        this.endlessMode = endlessMode;
+    }
+
+    /**
+     * Llamado por MenuScreen cuando la precarga ha terminado.
+     */
+    public void onAssetsLoaded() {
+        long start = System.nanoTime();
         initializeGame();
+        System.out.println("✅ Partida inicializada en " + (System.nanoTime() - start) / 1_000_000
+            + " ms (precarga: " + assetPreloader.getElapsedMillis() + " ms)");
     }
 
     private void initializeGame() {
         gameOver = false;
         gameWon = false;
         moveUp = moveDown = moveLeft = moveRight = false;
+        simulationClock.reset();
 
         rootNode.detachAllChildren();
         guiNode.detachAllChildren();
@@ -76,9 +111,18 @@ public class Main extends SimpleApplication {
 
         if (enemyManager != null) enemyManager.cleanup();
         enemyManager = new EnemyManager(assetManager, rootNode, castle);
+        enemyManager.setCamera(cam);
+        enemyManager.setPhysicsSpace(gamePhysics.getBulletAppState().getPhysicsSpace());
+        enemyManager.setProxyFocus(player.getModel());
+        if (waveCampaign == null) {
+            String campaignFile = endlessMode ? Constants.ENDLESS_CAMPAIGN_FILE : Constants.WAVE_CAMPAIGN_FILE;
+            waveCampaign = WaveCampaign.load(assetManager, campaignFile, enemyManager.getPaths().length);
+        }
+        enemyManager.setCampaign(waveCampaign);
 
         if (towerManager != null) towerManager.cleanup();
         towerManager = new TowerManager(assetManager, rootNode);
+        towerManager.setPaths(enemyManager.getPaths());
 
         BitmapFont font = assetManager.loadFont("Interface/Fonts/Default.fnt");
         gameHealthDisplay = new GameHealthDisplay(castle, guiNode, font, assetManager, settings);
@@ -200,7 +244,8 @@ public class Main extends SimpleApplication {
 
         // Actualizar el countdown UI si está activo
         if (enemyManager.isInCountdown()) {
-            waveCountdownUI.startCountdown(enemyManager.getNextWaveIndex(), enemyManager.getCountdownTimer());
+            waveCountdownUI.startCountdown(enemyManager.getNextWaveIndex(), enemyManager.isNextWaveBoss(),
+                enemyManager.getCountdownTimer());
             
             // Mostrar torres disponibles al comenzar nueva oleada
             if (towerManager != null) {
@@ -225,8 +270,24 @@ public class Main extends SimpleApplication {
         updatePlayerMovement(tpf);
         updateCamera(tpf);
         player.update(tpf);
-        enemyManager.update(tpf);
 
+        // La lógica de enemigos y torres avanza en ticks fijos, independientes de los FPS
+        long simulationStart = System.nanoTime();
+        int steps = simulationClock.advance(tpf);
+        float step = simulationClock.getStepSeconds();
+        for (int i = 0; i < steps; i++) {
+            enemyManager.update(step);
+            if (towerManager != null) {
+                towerManager.updateTowers(step, enemyManager);
+            }
+        }
+        float alpha = simulationClock.getAlpha();
+        enemyManager.syncScene(alpha);
+        if (towerManager != null) {
+            towerManager.syncScene(alpha);
+        }
+        // La capacidad mide sólo la simulación y su volcado a escena, no el render ni la UI
+        float simulationSeconds = (System.nanoTime() - simulationStart) / 1e9f;
         if (towerManager != null) {
             towerManager.update(tpf, player.getModel().getWorldTranslation(), enemyManager);
         }
@@ -235,6 +296,7 @@ public class Main extends SimpleApplication {
         if (towerUI != null && towerManager != null) {
             towerUI.update(towerManager.canPlaceTower(), towerManager.getCurrentPlacementPoint());
         }
+        capacityTracker.record(simulationSeconds, tpf, enemyManager.getMovingEnemyCount());
     }
 
     private void triggerGameOver() {
@@ -242,6 +304,8 @@ public class Main extends SimpleApplication {
         if (enemyManager != null) enemyManager.pause();
         if (gameOverState != null) gameOverState.setEnabled(true);
         System.out.println("¡GAME OVER! El castillo ha sido destruido.");
+        logPhysicsStats();
+        logCapacityStats();
     }
 
     private void triggerVictory() {
@@ -249,12 +313,55 @@ public class Main extends SimpleApplication {
         if (enemyManager != null) enemyManager.pause();
         if (victoryState != null) victoryState.setEnabled(true);
         System.out.println("¡VICTORIA! Has derrotado al boss y completado todas las oleadas.");
+        logPhysicsStats();
+        logCapacityStats();
+    }
+
+    private void logCapacityStats() {
+        System.out.println(String.format("Enemigos en marcha (sin contar el asedio): pico %d, %d sostenidos a 60 FPS, peor frame %.1f ms",
+            capacityTracker.getPeakEnemies(), capacityTracker.getPeakSustained(),
+            capacityTracker.getWorstFrame() * 1000f));
+        capacityTracker.reset();
+    }
+
+    private void logPhysicsStats() {
+        if (gamePhysics == null) return;
+
+        PhysicsStepTimer timer = gamePhysics.getStepTimer();
+        System.out.println(String.format("Física: %d pasos, %.3f ms de media, %.3f ms máximo",
+            timer.getStepCount(), timer.getAverageStepMillis(), timer.getMaxStepMillis()));
+        timer.reset();
     }
 
     public void restartGame() {
         if (gameOverState != null) gameOverState.setEnabled(false);
         if (victoryState != null) victoryState.setEnabled(false);
-        initializeGame();
+
+        long start = System.nanoTime();
+        if (gamePhysics != null && player != null) {
+            resetGame();
+        } else {
+            initializeGame();
+        }
+        System.out.println("✅ Partida reiniciada en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Reinicio en caliente: conserva el mapa, el castillo, las formas de colisión,
+     * el espacio físico y la UI, y solo reinicia el estado dinámico de la partida.
+     */
+    private void resetGame() {
+        gameOver = false;
+        gameWon = false;
+        moveUp = moveDown = moveLeft = moveRight = false;
+        simulationClock.reset();
+
+        castle.reset();
+        player.reset();
+        enemyManager.reset();
+        towerManager.reset();
+        gameHealthDisplay.reset();
+        waveCountdownUI.reset();
     }
 
     private void updatePlayerMovement(float tpf) {
@@ -0,0 +1,491 @@
+package mygame.core;
+
+import com.jme3.app.LegacyApplication;
+import com.jme3.app.state.AppStateManager;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.DesktopAssetManager;
+import com.jme3.asset.plugins.FileLocator;
+import com.jme3.bullet.BulletAppState;
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.PhysicsTickListener;
+import com.jme3.bullet.collision.PhysicsCollisionObject;
+import com.jme3.bullet.collision.shapes.BoxCollisionShape;
+import com.jme3.bullet.collision.shapes.CapsuleCollisionShape;
+import com.jme3.bullet.collision.shapes.CollisionShape;
+import com.jme3.bullet.control.CharacterControl;
+import com.jme3.bullet.control.RigidBodyControl;
+import com.jme3.bullet.objects.PhysicsCharacter;
+import com.jme3.bullet.objects.PhysicsGhostObject;
+import com.jme3.bullet.objects.PhysicsRigidBody;
+import com.jme3.bullet.util.CollisionShapeFactory;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import mygame.entities.Castle;
+import mygame.entities.Enemy;
+import mygame.entities.Enemy.EnemyType;
+import mygame.entities.Player;
+import mygame.systems.EnemyManager;
+import mygame.systems.WaveCampaign;
+import mygame.systems.WaveDefinition;
+import mygame.utils.CollisionProxyBuilder;
+import mygame.utils.Constants;
+
+/**
+ * Benchmark del paso de Bullet sin ventana: el mapa y el castillo reales, el
+ * suelo de emergencia y el jugador recorriendo los caminos de ida y vuelta, medido
+ * con PhysicsStepTimer.
+ *
+ *   1. Escenario estático con las mallas de render (CollisionShapeFactory.createMeshShape)
+ *      frente a los proxies (heightfield del suelo y cajas del castillo).
+ *   2. 50, 500 y 5.000 enemigos con el código anterior (un CapsuleCollisionShape y un
+ *      RigidBodyControl de masa 1 por enemigo, nunca añadidos al PhysicsSpace, con su
+ *      posición copiada cada frame) frente a los ghosts en pool de EnemyPhysicsProxies.
+ *      Se mide la aparición de la oleada, la actualización posterior y el paso de Bullet.
+ *   3. La misma oleada con ghosts sobre un BulletAppState real, con la configuración
+ *      anterior (SEQUENTIAL, DBVT y sin grupos de colisión) frente a la de GamePhysics
+ *      (PARALLEL, AxisSweep3 y grupos) y sus combinaciones intermedias. En PARALLEL el
+ *      paso solo se solapa con el render, que aquí se simula dejando libre el hilo
+ *      principal (como mientras espera a la GPU). Cada configuración cuenta además los
+ *      pasos de Bullet que han coincidido con la lógica del frame (update del
+ *      BulletAppState, jugador y enemigos, que escriben en los objetos físicos): debe
+ *      salir 0, que es la garantía de la que depende GamePhysics.
+ *
+ * Se ejecuta desde la raíz del proyecto (lee los modelos de assets/).
+ * Argumentos (opcionales): --steps=N pasos medidos por escenario,
+ * --render-ms=N duración del render simulado por frame.
+ */
+public class PhysicsBenchmark {
+    private static final int WARMUP_STEPS = 600;
+    private static final float STEP = 1f / 60f;
+    private static final float WAYPOINT_RADIUS = 0.3f;
+    // Si el jugador se atasca contra algo, pasa al siguiente punto tras este número de pasos
+    private static final int WAYPOINT_TIMEOUT_STEPS = 180;
+    private static final int[] ENEMY_COUNTS = {50, 500, 5000};
+    // La oleada aparece repartida en este tiempo y luego se mide UPDATE_TICKS más
+    private static final float SPAWN_SECONDS = 2f;
+    private static final int UPDATE_TICKS = 180;
+    // Sin grupos los ghosts se solapan entre sí: con 5.000 una sola oleada no acaba en 10 minutos
+    private static final int MAX_UNGROUPED_ENEMIES = 500;
+
+    private final int steps;
+    private final long renderNanos;
+    private final Spatial mapModel;
+    private final Castle castle;
+    private final Player player;
+    private final Vector3f[] waypoints;
+    private final Vector3f walkDirection = new Vector3f();
+    private int waypoint = 0;
+    private int waypointStep = 1;
+    private int stepsOnWaypoint = 0;
+    private final LogicOverlapCheck overlapCheck = new LogicOverlapCheck();
+
+    public PhysicsBenchmark(AssetManager assetManager, int steps, float renderMillis) {
+        this.steps = steps;
+        this.renderNanos = (long) (renderMillis * 1e6);
+        mapModel = assetManager.loadModel(Constants.MAP_MODEL);
+        mapModel.updateGeometricState();
+        castle = new Castle(assetManager);
+        castle.getModel().updateGeometricState();
+        player = new Player(assetManager);
+
+        // Los caminos de los enemigos son transitables y acaban en el castillo
+        waypoints = new EnemyManager(null, new Node("BenchmarkRoot"), new Castle())
+            .getPaths()[0].getWaypoints();
+    }
+
+    public void run() {
+        System.out.println("=== ESCENARIO ESTÁTICO: MALLAS FRENTE A PROXIES ===");
+        measureStatic("Mallas de render",
+            CollisionShapeFactory.createMeshShape(mapModel),
+            CollisionShapeFactory.createMeshShape(castle.getModel()));
+        CollisionShape mapProxy = CollisionProxyBuilder.buildHeightfield(mapModel,
+            Constants.GROUND_HEIGHTFIELD_SIZE, Constants.GROUND_HEIGHTFIELD_MARGIN);
+        CollisionShape castleProxy =
+            CollisionProxyBuilder.buildBoxCompound(castle.getModel(), Constants.CASTLE_PROXY_MIN_EXTENT);
+        measureStatic("Proxies", mapProxy, castleProxy);
+
+        System.out.println("=== ENEMIGOS: CUERPOS RÍGIDOS POR ENEMIGO FRENTE A GHOSTS EN POOL ===");
+        for (int count : ENEMY_COUNTS) {
+            measureEnemies("Cuerpos rígidos", count, false, mapProxy, castleProxy);
+            measureEnemies("Ghosts", count, true, mapProxy, castleProxy);
+        }
+
+        System.out.println(String.format("=== HILOS, BROADPHASE Y GRUPOS (render simulado de %.1f ms) ===",
+            renderNanos / 1e6));
+        for (int count : ENEMY_COUNTS) {
+            measureConfiguration("SEQUENTIAL + DBVT sin grupos", count, BulletAppState.ThreadingType.SEQUENTIAL,
+                PhysicsSpace.BroadphaseType.DBVT, false, mapProxy, castleProxy);
+            measureConfiguration("SEQUENTIAL + DBVT + grupos", count, BulletAppState.ThreadingType.SEQUENTIAL,
+                PhysicsSpace.BroadphaseType.DBVT, true, mapProxy, castleProxy);
+            measureConfiguration("SEQUENTIAL + AxisSweep3 + grupos", count, BulletAppState.ThreadingType.SEQUENTIAL,
+                PhysicsSpace.BroadphaseType.AXIS_SWEEP_3, true, mapProxy, castleProxy);
+            measureConfiguration("PARALLEL + AxisSweep3 + grupos", count, BulletAppState.ThreadingType.PARALLEL,
+                PhysicsSpace.BroadphaseType.AXIS_SWEEP_3, true, mapProxy, castleProxy);
+        }
+    }
+
+    private void measureStatic(String label, CollisionShape mapShape, CollisionShape castleShape) {
+        PhysicsSpace space = createSpace(mapShape, castleShape);
+        PhysicsStepTimer timer = new PhysicsStepTimer();
+        space.addTickListener(timer);
+
+        runSteps(space, WARMUP_STEPS);
+        timer.reset();
+        runSteps(space, steps);
+
+        Vector3f location = player.getControl().getPhysicsLocation();
+        System.out.println(String.format("%-18s paso medio %.3f ms, máximo %.3f ms (%d pasos),"
+            + " jugador en (%.2f, %.2f, %.2f)",
+            label + ":", timer.getAverageStepMillis(), timer.getMaxStepMillis(), timer.getStepCount(),
+            location.x, location.y, location.z));
+
+        space.removeTickListener(timer);
+        space.remove(player.getControl());
+        space.destroy();
+    }
+
+    /**
+     * Una oleada de count enemigos sobre el escenario de proxies. La primera pasada llena
+     * el pool de enemigos y el de ghosts (o crea los cuerpos rígidos, como hacía el
+     * constructor de Enemy); tras un reinicio en caliente se mide la segunda.
+     */
+    private void measureEnemies(String label, int count, boolean ghosts,
+                                CollisionShape mapShape, CollisionShape castleShape) {
+        PhysicsSpace space = createSpace(mapShape, castleShape);
+        PhysicsStepTimer timer = new PhysicsStepTimer();
+        space.addTickListener(timer);
+        space.addTickListener(overlapCheck);
+
+        Castle target = new Castle();
+        target.setMaxHealth(Integer.MAX_VALUE);
+        EnemyManager enemyManager = new EnemyManager(null, new Node("BenchmarkRoot"), target);
+        if (ghosts) {
+            enemyManager.setPhysicsSpace(space);
+        }
+        WaveCampaign campaign = createWave(count, enemyManager.getPaths().length);
+
+        int spawnTicks = Math.round(SPAWN_SECONDS / STEP);
+        long spawnNanos = 0;
+        long updateNanos = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            boolean measured = pass == 1;
+            enemyManager.reset();
+            enemyManager.setRandomSeed(7L);
+            enemyManager.setCampaign(campaign);
+            while (enemyManager.isInCountdown()) {
+                enemyManager.update(STEP);
+                step(space);
+            }
+
+            for (int t = 0; t < spawnTicks + UPDATE_TICKS; t++) {
+                if (t == spawnTicks) {
+                    timer.reset();
+                }
+                long start = System.nanoTime();
+                enemyManager.update(STEP);
+                if (!ghosts) {
+                    syncLegacyBodies(enemyManager);
+                }
+                long elapsed = System.nanoTime() - start;
+                if (measured) {
+                    if (t < spawnTicks) spawnNanos += elapsed;
+                    else updateNanos += elapsed;
+                }
+                step(space);
+            }
+        }
+
+        System.out.println(String.format("%-16s %5d enemigos: aparición %.3f ms/tick,"
+            + " actualización %.3f ms/tick, paso medio %.3f ms (máximo %.3f ms)",
+            label + ":", enemyManager.getActiveEnemyCount(),
+            spawnNanos / 1e6 / spawnTicks, updateNanos / 1e6 / UPDATE_TICKS,
+            timer.getAverageStepMillis(), timer.getMaxStepMillis()));
+
+        enemyManager.setPhysicsSpace(null);
+        space.removeTickListener(timer);
+        space.remove(player.getControl());
+        space.destroy();
+    }
+
+    /**
+     * La oleada de count enemigos con ghosts, avanzada frame a frame como lo hace la
+     * aplicación con el BulletAppState: update, lógica, render (en SEQUENTIAL ejecuta el paso,
+     * en PARALLEL lo lanza en el hilo de física), render simulado y postRender (en
+     * PARALLEL espera al paso). Se mide el hilo principal sin contar el render simulado;
+     * si el render se alarga porque el paso le quita la CPU, el exceso sí cuenta.
+     */
+    private void measureConfiguration(String label, int count, BulletAppState.ThreadingType threading,
+                                      PhysicsSpace.BroadphaseType broadphase, boolean groups,
+                                      CollisionShape mapShape, CollisionShape castleShape) {
+        if (!groups && count > MAX_UNGROUPED_ENEMIES) {
+            System.out.println(String.format("%-34s %5d enemigos: omitido (pares ghost-ghost)",
+                label + ":", count));
+            return;
+        }
+
+        BulletAppState bulletAppState =
+            new BulletAppState(GamePhysics.getWorldMin(), GamePhysics.getWorldMax(), broadphase);
+        bulletAppState.setThreadingType(threading);
+        AppStateManager stateManager = new LegacyApplication().getStateManager();
+        // attach crea el PhysicsSpace (y el hilo de física en PARALLEL) y el update lo inicializa
+        stateManager.attach(bulletAppState);
+        stateManager.update(0f);
+        PhysicsSpace space = bulletAppState.getPhysicsSpace();
+        populate(space, mapShape, castleShape);
+        PhysicsStepTimer timer = new PhysicsStepTimer();
+        space.addTickListener(timer);
+
+        Castle target = new Castle();
+        target.setMaxHealth(Integer.MAX_VALUE);
+        EnemyManager enemyManager = new EnemyManager(null, new Node("BenchmarkRoot"), target);
+        enemyManager.setPhysicsSpace(space);
+        WaveCampaign campaign = createWave(count, enemyManager.getPaths().length);
+
+        int frames = Math.round(SPAWN_SECONDS / STEP) + UPDATE_TICKS;
+        long mainNanos = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            boolean measured = pass == 1;
+            if (!groups) {
+                // Los ghosts que creó la primera pasada vuelven al pool sin grupo
+                clearCollisionGroups(space);
+            }
+            enemyManager.reset();
+            enemyManager.setRandomSeed(7L);
+            enemyManager.setCampaign(campaign);
+            while (enemyManager.isInCountdown()) {
+                runFrame(bulletAppState, enemyManager);
+            }
+
+            if (measured) {
+                timer.reset();
+                overlapCheck.reset();
+            }
+            for (int f = 0; f < frames; f++) {
+                long elapsed = runFrame(bulletAppState, enemyManager);
+                if (measured) {
+                    mainNanos += elapsed;
+                }
+            }
+        }
+
+        System.out.println(String.format("%-34s %5d enemigos: hilo principal %.3f ms/frame,"
+            + " paso medio %.3f ms (máximo %.3f ms), pasos solapados con la lógica %d",
+            label + ":", count, mainNanos / 1e6 / frames,
+            timer.getAverageStepMillis(), timer.getMaxStepMillis(), overlapCheck.getOverlaps()));
+        if (overlapCheck.getOverlaps() > 0) {
+            System.out.println("❌ Bullet ha dado pasos mientras la lógica escribía en los objetos físicos");
+        }
+
+        enemyManager.setPhysicsSpace(null);
+        space.removeTickListener(overlapCheck);
+        space.removeTickListener(timer);
+        space.remove(player.getControl());
+        GamePhysics.setPlayerGroup(player.getControl());
+        // El detach se procesa en el siguiente update: para el hilo y destruye el espacio
+        stateManager.detach(bulletAppState);
+        stateManager.update(0f);
+    }
+
+    /**
+     * Un frame de la aplicación; devuelve lo que ha ocupado el hilo principal sin el render.
+     */
+    private long runFrame(BulletAppState bulletAppState, EnemyManager enemyManager) {
+        long start = System.nanoTime();
+        overlapCheck.setInLogic(true);
+        bulletAppState.update(STEP);
+        walkPlayer();
+        enemyManager.update(STEP);
+        overlapCheck.setInLogic(false);
+        bulletAppState.render(null);
+
+        LockSupport.parkNanos(renderNanos);
+
+        bulletAppState.postRender();
+        return System.nanoTime() - start - renderNanos;
+    }
+
+    /**
+     * Cuenta los pasos de Bullet (desde el hilo de física en PARALLEL) que empiezan o
+     * acaban mientras el hilo principal está en la lógica del frame.
+     */
+    private static final class LogicOverlapCheck implements PhysicsTickListener {
+        private volatile boolean inLogic = false;
+        private final AtomicInteger overlaps = new AtomicInteger();
+
+        void setInLogic(boolean inLogic) {
+            this.inLogic = inLogic;
+        }
+
+        int getOverlaps() {
+            return overlaps.get();
+        }
+
+        void reset() {
+            overlaps.set(0);
+        }
+
+        @Override
+        public void prePhysicsTick(PhysicsSpace space, float tpf) {
+            if (inLogic) overlaps.incrementAndGet();
+        }
+
+        @Override
+        public void physicsTick(PhysicsSpace space, float tpf) {
+            if (inLogic) overlaps.incrementAndGet();
+        }
+    }
+
+    /**
+     * Todo en el grupo por defecto y chocando con todo, como antes de los grupos de colisión.
+     */
+    private static void clearCollisionGroups(PhysicsSpace space) {
+        for (PhysicsRigidBody body : space.getRigidBodyList()) {
+            clearCollisionGroup(body);
+        }
+        for (PhysicsGhostObject ghost : space.getGhostObjectList()) {
+            clearCollisionGroup(ghost);
+        }
+        for (PhysicsCharacter character : space.getCharacterList()) {
+            clearCollisionGroup(character);
+        }
+    }
+
+    private static void clearCollisionGroup(PhysicsCollisionObject object) {
+        object.setCollisionGroup(PhysicsCollisionObject.COLLISION_GROUP_01);
+        object.setCollideWithGroups(PhysicsCollisionObject.COLLISION_GROUP_01);
+    }
+
+    /**
+     * Una sola oleada de demonios azules repartida entre todos los carriles.
+     */
+    private static WaveCampaign createWave(int count, int laneCount) {
+        int[] lanes = new int[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = i;
+        }
+        WaveDefinition.SpawnGroup group = new WaveDefinition.SpawnGroup(0f, count, SPAWN_SECONDS / count,
+            new EnemyType[] {EnemyType.BLUE_DEMON}, new float[] {1f}, lanes);
+        return new WaveCampaign("Benchmark", new WaveDefinition[] {
+            new WaveDefinition("Benchmark", 0.5f, new WaveDefinition.SpawnGroup[] {group}, -1)
+        });
+    }
+
+    /**
+     * Lo que hacía Enemy antes de los proxies: un cuerpo rígido propio, creado con el
+     * enemigo y reutilizado por el pool, al que se copiaba la posición en cada frame.
+     */
+    private void syncLegacyBodies(EnemyManager enemyManager) {
+        List<Enemy> enemies = enemyManager.getActiveEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            RigidBodyControl body = enemy.getNode().getControl(RigidBodyControl.class);
+            if (body == null) {
+                EnemyType type = enemy.getType();
+                CapsuleCollisionShape capsule = new CapsuleCollisionShape(0.3f * type.scale, 1.5f * type.scale);
+                body = new RigidBodyControl(capsule, 1f);
+                enemy.getNode().addControl(body);
+            }
+            body.setPhysicsLocation(enemy.getPosition());
+        }
+    }
+
+    /**
+     * PhysicsSpace configurado como el de GamePhysics, con el escenario estático y el jugador.
+     */
+    private PhysicsSpace createSpace(CollisionShape mapShape, CollisionShape castleShape) {
+        PhysicsSpace space = new PhysicsSpace(GamePhysics.getWorldMin(), GamePhysics.getWorldMax(),
+            PhysicsSpace.BroadphaseType.AXIS_SWEEP_3);
+        populate(space, mapShape, castleShape);
+        return space;
+    }
+
+    private void populate(PhysicsSpace space, CollisionShape mapShape, CollisionShape castleShape) {
+        space.setGravity(new Vector3f(0, -15f, 0));
+
+        addStatic(space, mapShape, mapModel);
+        addStatic(space, castleShape, castle.getModel());
+
+        // Suelo de emergencia de GamePhysics
+        PhysicsRigidBody ground = new PhysicsRigidBody(new BoxCollisionShape(new Vector3f(50f, 0.1f, 50f)), 0);
+        ground.setPhysicsLocation(new Vector3f(0, -2f, 0));
+        GamePhysics.setStaticGroup(ground);
+        space.add(ground);
+
+        player.reset();
+        waypoint = 0;
+        waypointStep = 1;
+        stepsOnWaypoint = 0;
+        space.add(player.getControl());
+    }
+
+    private void addStatic(PhysicsSpace space, CollisionShape shape, Spatial model) {
+        PhysicsRigidBody body = new PhysicsRigidBody(shape, 0);
+        body.setPhysicsLocation(model.getWorldTranslation());
+        body.setPhysicsRotation(model.getWorldRotation());
+        GamePhysics.setStaticGroup(body);
+        space.add(body);
+    }
+
+    private void runSteps(PhysicsSpace space, int count) {
+        for (int i = 0; i < count; i++) {
+            step(space);
+        }
+    }
+
+    /**
+     * Un paso de física con el jugador caminando.
+     */
+    private void step(PhysicsSpace space) {
+        walkPlayer();
+        space.update(STEP);
+        space.distributeEvents();
+    }
+
+    /**
+     * Orienta al jugador hacia su punto del camino.
+     */
+    private void walkPlayer() {
+        CharacterControl control = player.getControl();
+        Vector3f location = control.getPhysicsLocation();
+        Vector3f target = waypoints[waypoint];
+        walkDirection.set(target.x - location.x, 0, target.z - location.z);
+        if (walkDirection.length() < WAYPOINT_RADIUS || ++stepsOnWaypoint > WAYPOINT_TIMEOUT_STEPS) {
+            nextWaypoint();
+        }
+        walkDirection.normalizeLocal().multLocal(Constants.PLAYER_MOVE_SPEED * STEP);
+        control.setWalkDirection(walkDirection);
+    }
+
+    /**
+     * Recorre los puntos del camino de ida y vuelta.
+     */
+    private void nextWaypoint() {
+        if (waypoint + waypointStep < 0 || waypoint + waypointStep >= waypoints.length) {
+            waypointStep = -waypointStep;
+        }
+        waypoint += waypointStep;
+        stepsOnWaypoint = 0;
+    }
+
+    public static void main(String[] args) {
+        int steps = 6000;
+        float renderMillis = 4f;
+        for (String arg : args) {
+            if (arg.startsWith("--steps=")) {
+                steps = Integer.parseInt(arg.substring("--steps=".length()));
+            } else if (arg.startsWith("--render-ms=")) {
+                renderMillis = Float.parseFloat(arg.substring("--render-ms=".length()));
+            } else {
+                System.err.println("Argumento desconocido: " + arg);
+            }
+        }
+
+        DesktopAssetManager assetManager = new DesktopAssetManager(true);
+        assetManager.registerLocator("assets", FileLocator.class);
+        new PhysicsBenchmark(assetManager, steps, renderMillis).run();
+    }
+}
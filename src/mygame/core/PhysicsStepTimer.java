@@ -0,0 +1,69 @@
+package mygame.core;
+
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.PhysicsTickListener;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mide cuánto tarda cada paso interno de Bullet (entre prePhysicsTick y physicsTick).
+ * Con threading PARALLEL los callbacks llegan desde el hilo de física y reset() desde
+ * el del juego, por eso las cifras se publican juntas en un Stats inmutable: la media
+ * y el máximo siempre salen del mismo conjunto de pasos.
+ */
+public class PhysicsStepTimer implements PhysicsTickListener {
+    private static final Stats EMPTY = new Stats(0, 0, 0, 0);
+
+    private long stepStartNanos;
+    private final AtomicReference<Stats> stats = new AtomicReference<>(EMPTY);
+
+    @Override
+    public void prePhysicsTick(PhysicsSpace space, float tpf) {
+        stepStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void physicsTick(PhysicsSpace space, float tpf) {
+        long elapsed = System.nanoTime() - stepStartNanos;
+        stats.updateAndGet(s -> s.plus(elapsed));
+    }
+
+    public float getLastStepMillis() {
+        return stats.get().lastNanos / 1e6f;
+    }
+
+    public float getMaxStepMillis() {
+        return stats.get().maxNanos / 1e6f;
+    }
+
+    public float getAverageStepMillis() {
+        Stats s = stats.get();
+        return s.count == 0 ? 0f : s.totalNanos / 1e6f / s.count;
+    }
+
+    public long getStepCount() {
+        return stats.get().count;
+    }
+
+    public void reset() {
+        stats.set(EMPTY);
+    }
+
+    /** Cifras acumuladas hasta un paso; cada paso publica una nueva. */
+    private static final class Stats {
+        final long lastNanos;
+        final long maxNanos;
+        final long totalNanos;
+        final long count;
+
+        Stats(long lastNanos, long maxNanos, long totalNanos, long count) {
+            this.lastNanos = lastNanos;
+            this.maxNanos = maxNanos;
+            this.totalNanos = totalNanos;
+            this.count = count;
+        }
+
+        Stats plus(long elapsed) {
+            return new Stats(elapsed, Math.max(maxNanos, elapsed), totalNanos + elapsed, count + 1);
+        }
+    }
+}
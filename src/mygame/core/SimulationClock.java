@@ -0,0 +1,72 @@
+package mygame.core;
+
+/**
+ * Reloj de paso fijo para la lógica del juego.
+ * Acumula el tiempo de cada frame y lo convierte en ticks de duración constante,
+ * de modo que el resultado de la simulación no depende de los FPS.
+ */
+public class SimulationClock {
+    private final float stepSeconds;
+    private final int maxStepsPerFrame;
+    private float accumulator = 0f;
+    private long tickCount = 0;
+    private long droppedTicks = 0;
+
+    /**
+     * @param ticksPerSecond frecuencia de la simulación (por ejemplo 30 o 60 Hz)
+     * @param maxStepsPerFrame máximo de ticks recuperados en un frame largo
+     */
+    public SimulationClock(int ticksPerSecond, int maxStepsPerFrame) {
+        if (ticksPerSecond <= 0 || maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("La frecuencia y el límite de pasos deben ser positivos");
+        }
+        this.stepSeconds = 1f / ticksPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Añade el tiempo del frame y devuelve cuántos ticks hay que simular.
+     * Si el frame es demasiado largo se descarta el exceso para no entrar
+     * en una espiral de ticks atrasados.
+     */
+    public int advance(float tpf) {
+        accumulator += tpf;
+        int steps = (int) (accumulator / stepSeconds);
+
+        if (steps > maxStepsPerFrame) {
+            droppedTicks += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator = 0f;
+        } else {
+            accumulator -= steps * stepSeconds;
+        }
+
+        tickCount += steps;
+        return steps;
+    }
+
+    /**
+     * Fracción (0..1) entre el último tick y el siguiente, para interpolar el render.
+     */
+    public float getAlpha() {
+        return Math.min(accumulator / stepSeconds, 1f);
+    }
+
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    public void reset() {
+        accumulator = 0f;
+        tickCount = 0;
+        droppedTicks = 0;
+    }
+}
@@ -0,0 +1,230 @@
+package mygame.core;
+
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import mygame.entities.Castle;
+import mygame.entities.Tower;
+import mygame.systems.EnemyManager;
+import mygame.systems.SpatialHashGrid;
+import mygame.systems.TowerManager;
+import mygame.systems.WaveCampaign;
+import mygame.utils.Constants;
+
+/**
+ * Microbenchmarks de la búsqueda de objetivos de las torres, sin ventana ni GPU.
+ *
+ *   1. Rejilla espacial frente al recorrido completo de todos los enemigos con
+ *      100, 1.000 y 10.000 enemigos repartidos por el mapa (una consulta por punto
+ *      de colocación y frame, reconstruyendo la rejilla en cada frame).
+ *   2. Memoria reservada por Tower.update en régimen estable, tanto por la ruta
+ *      de cobertura de caminos como por la de la rejilla, con el campo lleno del
+ *      modo infinito. Debe ser 0 bytes por tick.
+ *
+ * Argumentos (opcionales): --frames=N frames medidos por tamaño, --ticks=N ticks medidos.
+ */
+public class TargetingBenchmark {
+    private static final int[] ENEMY_COUNTS = {100, 1000, 10000};
+    private static final int WARMUP_FRAMES = 2000;
+    // Rectángulo del mapa que recorren los caminos
+    private static final float MIN_X = -8f, MAX_X = 8f, MIN_Z = -8f, MAX_Z = 11f;
+
+    private final int frames;
+    private final int ticks;
+    // Evita que el JIT descarte las consultas cuyo resultado no se usa
+    private long checksum = 0;
+
+    public TargetingBenchmark(int frames, int ticks) {
+        this.frames = frames;
+        this.ticks = ticks;
+    }
+
+    public void run() {
+        System.out.println("=== REJILLA ESPACIAL FRENTE A RECORRIDO COMPLETO ===");
+        for (int count : ENEMY_COUNTS) {
+            benchmarkGrid(count);
+        }
+
+        System.out.println("=== MEMORIA RESERVADA POR Tower.update ===");
+        measureTowerAllocations();
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    private void benchmarkGrid(int enemyCount) {
+        SplittableRandom random = new SplittableRandom(enemyCount);
+        List<Vector3f> enemies = new ArrayList<>(enemyCount);
+        for (int i = 0; i < enemyCount; i++) {
+            enemies.add(new Vector3f(
+                (float) (MIN_X + random.nextDouble() * (MAX_X - MIN_X)), 0f,
+                (float) (MIN_Z + random.nextDouble() * (MAX_Z - MIN_Z))));
+        }
+
+        SpatialHashGrid<Vector3f> grid =
+            new SpatialHashGrid<>(Constants.ENEMY_GRID_CELL_SIZE, Constants.ENEMY_GRID_BUCKETS);
+        Vector3f[] towers = Constants.TOWER_PLACEMENT_POINTS;
+        float range = Constants.ATTACK_TOWER_RANGE;
+
+        for (int f = 0; f < WARMUP_FRAMES; f++) {
+            scanFrame(enemies, towers, range);
+            rebuildGrid(grid, enemies);
+            queryGrid(grid, towers, range);
+        }
+
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            scanFrame(enemies, towers, range);
+        }
+        double scanMicros = (System.nanoTime() - start) / 1e3 / frames;
+
+        start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            rebuildGrid(grid, enemies);
+        }
+        double rebuildMicros = (System.nanoTime() - start) / 1e3 / frames;
+
+        start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            queryGrid(grid, towers, range);
+        }
+        double queryMicros = (System.nanoTime() - start) / 1e3 / frames;
+
+        double gridMicros = rebuildMicros + queryMicros;
+        System.out.println(String.format("%6d enemigos, %d torres: recorrido %.1f us/frame,"
+            + " rejilla %.1f us/frame (reconstruir %.1f + consultas %.1f), %.1fx",
+            enemyCount, towers.length, scanMicros, gridMicros, rebuildMicros, queryMicros,
+            scanMicros / gridMicros));
+    }
+
+    /**
+     * El camino antiguo de Tower.update: copia de la lista de enemigos por torre
+     * y Vector3f.distance contra cada uno.
+     */
+    private void scanFrame(List<Vector3f> enemies, Vector3f[] towers, float range) {
+        for (Vector3f tower : towers) {
+            List<Vector3f> copy = new ArrayList<>(enemies);
+            Vector3f best = null;
+            float bestDist = range;
+            for (Vector3f enemy : copy) {
+                float dist = tower.distance(enemy);
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    best = enemy;
+                }
+            }
+            checksum += best != null ? (long) best.x : -1;
+        }
+    }
+
+    private void rebuildGrid(SpatialHashGrid<Vector3f> grid, List<Vector3f> enemies) {
+        grid.clear();
+        for (int i = 0; i < enemies.size(); i++) {
+            grid.insert(enemies.get(i), enemies.get(i));
+        }
+    }
+
+    private void queryGrid(SpatialHashGrid<Vector3f> grid, Vector3f[] towers, float range) {
+        for (Vector3f tower : towers) {
+            Vector3f nearest = grid.findNearest(tower, range, null);
+            checksum += nearest != null ? (long) nearest.x : -1;
+        }
+    }
+
+    /**
+     * Mide solo las llamadas a Tower.update de dos juegos de torres: con cobertura de
+     * caminos (el de la partida) y sin ella (consultas a la rejilla). La misma partida
+     * del modo infinito se juega dos veces: la primera hace crecer arrays y pools hasta
+     * su tamaño final y, tras un reinicio en caliente, la segunda es la que se mide.
+     * Así cuenta lo que se reserva por frame y no el crecimiento de capacidad.
+     */
+    private void measureTowerAllocations() {
+        Node rootNode = new Node("BenchmarkRoot");
+        Castle castle = new Castle();
+        castle.setMaxHealth(Integer.MAX_VALUE);
+        EnemyManager enemyManager = new EnemyManager(null, rootNode, castle);
+        TowerManager towerManager = new TowerManager(null, rootNode);
+        towerManager.setPaths(enemyManager.getPaths());
+
+        List<Tower> coverageTowers = new ArrayList<>();
+        List<Tower> gridTowers = new ArrayList<>();
+        for (int p = 0; p < Constants.TOWER_PLACEMENT_POINTS.length; p++) {
+            Tower.TowerType type = p % 3 == 2 ? Tower.TowerType.SLOW : Tower.TowerType.ATTACK;
+
+            Tower covered = new Tower(null, type);
+            covered.setPosition(Constants.TOWER_PLACEMENT_POINTS[p]);
+            covered.setLaneCoverage(towerManager.getPlacementCoverage(type, p));
+            covered.setProjectiles(towerManager.getProjectiles());
+            coverageTowers.add(covered);
+
+            Tower gridded = new Tower(null, type);
+            gridded.setPosition(Constants.TOWER_PLACEMENT_POINTS[p]);
+            gridTowers.add(gridded);
+        }
+
+        float step = 1f / Constants.SIMULATION_TICK_RATE;
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long coverageBytes = 0;
+        long gridBytes = 0;
+        long calls = 0;
+        long enemyTicks = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            boolean measured = pass == 1;
+            enemyManager.reset();
+            towerManager.getProjectiles().clear();
+            enemyManager.setRandomSeed(7L);
+            enemyManager.setCampaign(WaveCampaign.createEndless(enemyManager.getPaths().length));
+
+            for (int t = 0; t < ticks; t++) {
+                enemyManager.update(step);
+
+                long before = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < coverageTowers.size(); i++) {
+                    coverageTowers.get(i).update(step, enemyManager);
+                }
+                long middle = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < gridTowers.size(); i++) {
+                    gridTowers.get(i).update(step, enemyManager);
+                }
+                long after = threads.getThreadAllocatedBytes(threadId);
+                towerManager.getProjectiles().update(step);
+
+                if (measured) {
+                    coverageBytes += middle - before;
+                    gridBytes += after - middle;
+                    calls += coverageTowers.size() + gridTowers.size();
+                    enemyTicks += enemyManager.getActiveEnemyCount();
+                }
+            }
+        }
+
+        System.out.println(String.format("Media de enemigos activos: %.1f (final %d), llamadas a Tower.update medidas: %d",
+            (double) enemyTicks / ticks, enemyManager.getActiveEnemyCount(), calls));
+        System.out.println(String.format("Cobertura de caminos: %.2f bytes/tick (%d en total)",
+            (double) coverageBytes / ticks, coverageBytes));
+        System.out.println(String.format("Rejilla espacial: %.2f bytes/tick (%d en total)",
+            (double) gridBytes / ticks, gridBytes));
+        System.out.println(coverageBytes == 0 && gridBytes == 0
+            ? "✅ Tower.update no reserva memoria"
+            : "❌ Tower.update reserva memoria en régimen estable");
+    }
+
+    public static void main(String[] args) {
+        int frames = 5000;
+        int ticks = 20000;
+        for (String arg : args) {
+            if (arg.startsWith("--frames=")) {
+                frames = Integer.parseInt(arg.substring("--frames=".length()));
+            } else if (arg.startsWith("--ticks=")) {
+                ticks = Integer.parseInt(arg.substring("--ticks=".length()));
+            } else {
+                System.err.println("Argumento desconocido: " + arg);
+            }
+        }
+        new TargetingBenchmark(frames, ticks).run();
+    }
+}
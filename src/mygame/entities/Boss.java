@@ -8,21 +8,18 @@ import mygame.utils.Constants;
 public class Boss extends Enemy {
    
     
-    public Boss(AssetManager assetManager, Path path, Castle castle) {
-        super(assetManager, EnemyType.DRAGON_EVOLVED, path, castle);     
-        // Ajustar parámetros para hacerlo más difícil
-        this.currentHealth = type.maxHealth * Constants.BOSS_HEALTH_MULTIPLIER;
-    }
-    public int getCurrentHealth() {
-        return currentHealth;
+    public Boss(AssetManager assetManager, Path path) {
+        super(assetManager, EnemyType.DRAGON_EVOLVED, path);
     }
     
-    public int getMaxHealth() {
-        return type.maxHealth * Constants.BOSS_HEALTH_MULTIPLIER;
+    // Más vida que un enemigo normal para hacerlo más difícil
+    @Override
+    public int getSpawnHealth(float healthMultiplier) {
+        return super.getSpawnHealth(healthMultiplier) * Constants.BOSS_HEALTH_MULTIPLIER;
     }
     
     public float getHealthPercentage() {
-        return (float) currentHealth / getMaxHealth();
+        return (float) getCurrentHealth() / getMaxHealth();
     }
     
 
@@ -3,12 +3,16 @@ package mygame.entities;
 import com.jme3.asset.AssetManager;
 import com.jme3.bullet.control.RigidBodyControl;
 import com.jme3.bullet.collision.shapes.CollisionShape;
-import com.jme3.bullet.util.CollisionShapeFactory;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.FastMath;
 import com.jme3.math.Quaternion;
 import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
+import mygame.core.GamePhysics;
+import mygame.utils.CollisionProxyBuilder;
+import mygame.utils.CollisionShapeCache;
+import mygame.utils.Constants;
 
 public class Castle {
     private Spatial model;
@@ -18,7 +22,7 @@ public class Castle {
     private boolean destroyed = false;
 
     public Castle(AssetManager assetManager) {
-        model = assetManager.loadModel("Models/Environment/Castillo.j3o");
+        model = assetManager.loadModel(Constants.CASTLE_MODEL);
         model.setLocalScale(1f);
         model.setLocalTranslation(-1f, 0.1f, 10.7f);
         model.setLocalRotation(new Quaternion().fromAngles(
@@ -28,11 +32,27 @@ public class Castle {
         ));
         
         // Configurar física del castillo
-        CollisionShape castleShape = CollisionShapeFactory.createMeshShape(model);
+        CollisionShapeCache shapeCache = new CollisionShapeCache(assetManager);
+        CollisionShape castleShape;
+        if (Constants.USE_COLLISION_PROXIES) {
+            castleShape = shapeCache.getShape(Constants.CASTLE_MODEL, model, "boxes",
+                () -> CollisionProxyBuilder.buildBoxCompound(model, Constants.CASTLE_PROXY_MIN_EXTENT),
+                Constants.CASTLE_PROXY_MIN_EXTENT);
+        } else {
+            castleShape = shapeCache.getMeshShape(Constants.CASTLE_MODEL, model);
+        }
         physicsControl = new RigidBodyControl(castleShape, 0); // masa 0 = estático
+        GamePhysics.setStaticGroup(physicsControl);
         model.addControl(physicsControl);
     }
 
+    /**
+     * Castillo sin modelo ni física, usado por la simulación headless.
+     */
+    public Castle() {
+        model = new Node("EmptyCastle");
+    }
+
     public void takeDamage(int damage) {
         if (destroyed) return;
         
@@ -47,6 +67,22 @@ public class Castle {
         }
     }
 
+    /**
+     * Cambia la vida máxima y restaura la vida (pruebas de capacidad en headless).
+     */
+    public void setMaxHealth(int maxHealth) {
+        this.maxHealth = maxHealth;
+        reset();
+    }
+
+    /**
+     * Restaura la vida para una nueva partida sin recrear modelo ni física.
+     */
+    public void reset() {
+        currentHealth = maxHealth;
+        destroyed = false;
+    }
+
     public Spatial getModel() {
         return model;
     }
@@ -2,12 +2,12 @@ package mygame.entities;
 
 import com.jme3.anim.AnimComposer;
 import com.jme3.asset.AssetManager;
-import com.jme3.bullet.control.RigidBodyControl;
-import com.jme3.bullet.collision.shapes.CapsuleCollisionShape;
+import com.jme3.math.Quaternion;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import java.util.Set;
+import mygame.systems.EnemySimStore;
 import mygame.systems.Path;
 
 public class Enemy {
@@ -35,47 +35,40 @@ public class Enemy {
 
     private final Node enemyNode;
     private final Spatial model;
-    private final Path path;
+    private Path path;
     final EnemyType type;
-    private final Castle targetCastle;
 
-    int currentHealth;
-    private float pathT = 0;
     private boolean alive = true;
-    private boolean attackingCastle = false;
-    private float attackCooldown = 0;
-    private static final float ATTACK_INTERVAL = 1.5f;
 
-    // Variables para el sistema de torres
-    private boolean isSlowed = false;
-    private float currentSpeed;
+    // Estado de simulación en EnemySimStore (slot -1 si no está activo)
+    private EnemySimStore simStore;
+    private int slot = -1;
 
-    private RigidBodyControl physicsControl;
     private AnimComposer animator;
-    private Vector3f lastPosition;
-
-    public Enemy(AssetManager assetManager, EnemyType type, Path path, Castle castle) {
+    private String walkAnimation;
+    // Duración del clip de muerte que está sonando (0 si no tiene)
+    private float deathAnimationLength = 0f;
+    private final Vector3f lastPosition = new Vector3f();
+    // Vectores temporales reutilizados en cada sincronización
+    private final Vector3f position = new Vector3f();
+    private final Vector3f direction = new Vector3f();
+    private final Vector3f lookTarget = new Vector3f();
+
+    public Enemy(AssetManager assetManager, EnemyType type, Path path) {
         this.type = type;
         this.path = path;
-        this.targetCastle = castle;
-        this.currentHealth = type.maxHealth;
-        this.currentSpeed = type.speed; // Velocidad inicial
-        this.lastPosition = path.getPositionAlongPath(0);
+        path.getPositionAlongPath(0, lastPosition);
 
         enemyNode = new Node("EnemyNode");
-        model = assetManager.loadModel(type.modelPath);
+        // Sin AssetManager (modo headless) se usa un nodo vacío en lugar del modelo
+        model = assetManager != null
+            ? assetManager.loadModel(type.modelPath)
+            : new Node("EmptyEnemy_" + type.name());
         model.setLocalScale(type.scale);
         enemyNode.attachChild(model);
 
-        Vector3f startPos = path.getPositionAlongPath(0);
-        enemyNode.setLocalTranslation(startPos);
-
-        float radius = 0.3f * type.scale;
-        float height = 1.5f * type.scale;
-        CapsuleCollisionShape capsule = new CapsuleCollisionShape(radius, height);
-        physicsControl = new RigidBodyControl(capsule, 1f);
-        enemyNode.addControl(physicsControl);
-        physicsControl.setPhysicsLocation(startPos);
+        // La colisión la gestiona EnemyPhysicsProxies con un ghost compartido por tipo
+        enemyNode.setLocalTranslation(lastPosition);
 
         setupAnimations();
     }
@@ -83,13 +76,30 @@ public class Enemy {
     private void setupAnimations() {
         animator = findAnimComposer(model);
         if (animator != null) {
-            String walkAnim = findWalkAnimation(animator);
-            if (walkAnim != null) {
-                animator.setCurrentAction(walkAnim);
+            walkAnimation = findWalkAnimation(animator);
+            if (walkAnimation != null) {
+                animator.setCurrentAction(walkAnimation);
             }
         }
     }
 
+    /**
+     * Reinicia el enemigo para reutilizarlo desde el pool en un nuevo camino.
+     */
+    public void reset(Path newPath) {
+        this.path = newPath;
+        this.alive = true;
+        this.deathAnimationLength = 0f;
+
+        path.getPositionAlongPath(0, lastPosition);
+        enemyNode.setLocalTranslation(lastPosition);
+        enemyNode.setLocalRotation(Quaternion.IDENTITY);
+
+        if (animator != null && walkAnimation != null) {
+            animator.setCurrentAction(walkAnimation);
+        }
+    }
+
     private String findWalkAnimation(AnimComposer animator) {
         Set<String> animClips = animator.getAnimClipsNames();
         if (animClips.isEmpty()) {
@@ -107,42 +117,49 @@ public class Enemy {
         return animClips.iterator().next();
     }
 
-    public void update(float tpf) {
-        if (!alive) return;
+    public void bindSimulation(EnemySimStore store, int slot) {
+        this.simStore = store;
+        this.slot = slot;
+    }
 
-        if (attackingCastle) {
-            attackCooldown -= tpf;
-            if (attackCooldown <= 0) {
-                attackCastle();
-                attackCooldown = ATTACK_INTERVAL;
-            }
-            return;
-        }
+    public void unbindSimulation() {
+        this.simStore = null;
+        this.slot = -1;
+    }
 
-        // Usar la velocidad actual (que puede estar afectada por torres)
-        pathT += tpf * currentSpeed / path.getTotalLength();
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
 
-        if (pathT >= 1.0f) {
-            startAttackingCastle();
-            return;
-        }
+    public int getSlot() {
+        return slot;
+    }
 
-        Vector3f newPos = path.getPositionAlongPath(pathT);
-        Vector3f direction = newPos.subtract(lastPosition);
-        if (direction.length() > 0) {
+    /**
+     * Coloca el nodo en renderPosition (calculada por EnemyManager para el
+     * instante del render) y orienta el modelo según el avance.
+     */
+    public void syncTransform(Vector3f renderPosition) {
+        position.set(renderPosition);
+        direction.set(position).subtractLocal(lastPosition);
+        if (direction.lengthSquared() > 0) {
             direction.normalizeLocal();
-            enemyNode.lookAt(newPos.add(direction), Vector3f.UNIT_Y);
+            lookTarget.set(position).addLocal(direction);
+            enemyNode.lookAt(lookTarget, Vector3f.UNIT_Y);
         }
         
-        enemyNode.setLocalTranslation(newPos);
-        physicsControl.setPhysicsLocation(newPos);
-        lastPosition = newPos;
+        enemyNode.setLocalTranslation(position);
+        lastPosition.set(position);
     }
 
-    private void startAttackingCastle() {
-        attackingCastle = true;
-        physicsControl.setLinearVelocity(Vector3f.ZERO);
-        
+    public void setVisible(boolean visible) {
+        enemyNode.setCullHint(visible ? Spatial.CullHint.Inherit : Spatial.CullHint.Always);
+    }
+
+    /**
+     * Llamado por EnemyManager cuando la simulación llega al final del camino.
+     */
+    public void onReachedCastle() {
         if (animator != null) {
             String[] possibleAttackAnims = {"Attack", "attack", "Punch", "Bite"};
             for (String animName : possibleAttackAnims) {
@@ -154,50 +171,79 @@ public class Enemy {
         }
     }
 
-    private void attackCastle() {
-        if (targetCastle != null && !targetCastle.isDestroyed()) {
-            targetCastle.takeDamage(type.damage);
-        }
-    }
-
     public void takeDamage(int damage) {
-        currentHealth -= damage;
-        if (currentHealth <= 0) {
+        if (!alive || simStore == null) return;
+
+        if (simStore.applyDamage(slot, damage) <= 0) {
             die();
         }
     }
 
     private void die() {
         alive = false;
-        physicsControl.setLinearVelocity(Vector3f.ZERO);
+        deathAnimationLength = 0f;
         
         if (animator != null) {
             String[] possibleDeathAnims = {"Die", "Death", "die", "death"};
             for (String animName : possibleDeathAnims) {
                 if (animator.getAnimClipsNames().contains(animName)) {
                     animator.setCurrentAction(animName);
+                    deathAnimationLength = (float) animator.getAnimClip(animName).getLength();
                     break;
                 }
             }
         }
     }
 
+    /**
+     * Segundos que EnemyManager deja el cadáver en escena antes de devolverlo al pool.
+     */
+    public float getDeathAnimationLength() {
+        return deathAnimationLength;
+    }
+
     public void applySlow(float slowFactor) {
-        if (!isSlowed) {
-            isSlowed = true;
-            currentSpeed = type.speed * slowFactor;
+        if (simStore != null) {
+            simStore.applySlow(slot, slowFactor);
         }
     }
 
     public void removeSlow() {
-        if (isSlowed) {
-            isSlowed = false;
-            currentSpeed = type.speed;
+        if (simStore != null) {
+            simStore.removeSlow(slot);
         }
     }
 
     public Vector3f getPosition() {
-        return enemyNode.getWorldTranslation();
+        if (simStore == null) {
+            return enemyNode.getWorldTranslation();
+        }
+        return simStore.getPosition(slot, position);
+    }
+
+    public int getCurrentHealth() {
+        if (simStore == null) {
+            return alive ? getMaxHealth() : 0;
+        }
+        return Math.max(simStore.getHealth(slot), 0);
+    }
+
+    /**
+     * Vida máxima con la que apareció en su oleada; sin simulación, la de su aparición
+     * sin escalar.
+     */
+    public int getMaxHealth() {
+        if (simStore == null) {
+            return getSpawnHealth(1f);
+        }
+        return simStore.getMaxHealth(slot);
+    }
+
+    /**
+     * Vida con la que aparece en una oleada que escala la vida por healthMultiplier.
+     */
+    public int getSpawnHealth(float healthMultiplier) {
+        return Math.round(type.maxHealth * healthMultiplier);
     }
 
     // Getters existentes
@@ -206,7 +252,11 @@ public class Enemy {
     }
 
     public boolean isAttackingCastle() {
-        return attackingCastle;
+        return simStore != null && simStore.isAttackingCastle(slot);
+    }
+
+    public EnemyType getType() {
+        return type;
     }
 
     public Node getNode() {
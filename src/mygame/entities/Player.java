@@ -8,6 +8,7 @@ import com.jme3.math.FastMath;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
+import mygame.core.GamePhysics;
 import mygame.utils.Constants;
 
 public class Player {
@@ -19,6 +20,7 @@ public class Player {
     // Variables para controlar el ataque
     private boolean isAttacking = false;
     private float attackTimer = 0f;
+    private static final Vector3f SPAWN_LOCATION = new Vector3f(0, 3f, 0);
 
 
     public Player(AssetManager assetManager) {
@@ -28,7 +30,7 @@ public class Player {
     }
     
     private void loadModel(AssetManager assetManager) {
-        model = assetManager.loadModel("Models/Characters/KnightCharacter.j3o");
+        model = assetManager.loadModel(Constants.PLAYER_MODEL);
         model.setLocalScale(0.2f);
         model.setLocalTranslation(0, 1, 0);
     }
@@ -37,12 +39,13 @@ public class Player {
         // Crear cápsula de colisión más realista
         CapsuleCollisionShape capsule = new CapsuleCollisionShape(Constants.CAPSULE_RADIUS, Constants.CAPSULE_HEIGHT, 1);
         characterControl = new CharacterControl(capsule, Constants.STEP_HEIGHT);
+        GamePhysics.setPlayerGroup(characterControl);
         
         // Configurar parámetros de movimiento
         characterControl.setJumpSpeed(Constants.JUMP_SPEED);
         characterControl.setFallSpeed(Constants.FALL_SPEED);
         characterControl.setGravity(Constants.GRAVITY);
-        characterControl.setPhysicsLocation(new Vector3f(0, 3f, 0));
+        characterControl.setPhysicsLocation(SPAWN_LOCATION);
         
         // Mejorar la respuesta del movimiento
         characterControl.setMaxSlope(FastMath.PI / 6); // 30 grados máximo de pendiente
@@ -69,6 +72,17 @@ public class Player {
         }
     }
 
+    /**
+     * Devuelve al jugador al punto de inicio, parado y sin atacar.
+     */
+    public void reset() {
+        characterControl.setWalkDirection(Vector3f.ZERO);
+        characterControl.setPhysicsLocation(SPAWN_LOCATION);
+        isAttacking = false;
+        attackTimer = 0f;
+        setAnimation("Idle");
+    }
+
     public Spatial getModel() {
         return model;
     }
@@ -10,13 +10,31 @@ import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.shape.Box;
+import mygame.core.GamePhysics;
 import mygame.entities.Enemy;
 import mygame.systems.EnemyManager;
+import mygame.systems.ProjectileSystem;
+import mygame.systems.StatusEffectType;
+import mygame.systems.TargetingMode;
+import mygame.systems.TargetingStrategy;
 import mygame.utils.Constants;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Tower {
     public enum TowerType {
-        ATTACK, SLOW
+        ATTACK("Models/Towers/torre_disparo.j3o"),
+        SLOW("Models/Towers/torre_relentizado.j3o");
+
+        public final String modelPath;
+
+        TowerType(String modelPath) {
+            this.modelPath = modelPath;
+        }
+
+        public float getRange() {
+            return this == ATTACK ? Constants.ATTACK_TOWER_RANGE : Constants.SLOW_TOWER_RANGE;
+        }
     }
     
     private final Spatial model;
@@ -26,6 +44,22 @@ public class Tower {
     private RigidBodyControl physicsControl;
     private BulletAppState bulletAppState;
     
+    // Lista reutilizada para las consultas de la rejilla espacial
+    private final List<Enemy> enemiesInRange = new ArrayList<>();
+    
+    // Tramos de cada camino dentro del alcance, como pares [inicio, fin] de t
+    private float[][] laneCoverage;
+    // Torre dormida hasta sleepUntil (tiempo de simulación) mientras no cambie sleepEpoch
+    private double sleepUntil = Double.NEGATIVE_INFINITY;
+    private int sleepEpoch = -1;
+    
+    // Criterio de objetivo; el objetivo elegido se mantiene mientras siga en cobertura
+    private TargetingStrategy targeting = TargetingMode.FIRST;
+    private Enemy currentTarget;
+    
+    // Sin sistema de proyectiles el daño se aplica al instante
+    private ProjectileSystem projectiles;
+    
     public Tower(AssetManager assetManager, TowerType type) {
         this.type = type;
         this.cooldownTimer = 0f;
@@ -40,11 +74,8 @@ public class Tower {
     }
     
     private Spatial loadModelForTower(AssetManager assetManager, TowerType type) {
-        String modelPath = type == TowerType.ATTACK ? 
-            "Models/Towers/torre_disparo.j3o" : "Models/Towers/torre_relentizado.j3o";
-        
         try {
-            Spatial towerModel = assetManager.loadModel(modelPath);
+            Spatial towerModel = assetManager.loadModel(type.modelPath);
             towerModel.setName("Tower_" + type.name());
             towerModel.setLocalScale(1f); // Ajusta este valor para el tamaño visual
             return towerModel;
@@ -76,6 +107,7 @@ public class Tower {
             CollisionShape towerShape = CollisionShapeFactory.createBoxShape(boxGeometry);
             
             physicsControl = new RigidBodyControl(towerShape, 0);
+            GamePhysics.setStaticGroup(physicsControl);
             model.addControl(physicsControl);
             bulletAppState.getPhysicsSpace().add(physicsControl);
         } catch (Exception e) {
@@ -95,55 +127,108 @@ public class Tower {
         return type;
     }
     
-    public void update(float tpf, EnemyManager enemyManager) {
-        if (position == null) return;
+    public float getRange() {
+        return type.getRange();
+    }
+    
+    public float[][] getLaneCoverage() {
+        return laneCoverage;
+    }
+    
+    public void setLaneCoverage(float[][] laneCoverage) {
+        this.laneCoverage = laneCoverage;
+    }
+    
+    public void setProjectiles(ProjectileSystem projectiles) {
+        this.projectiles = projectiles;
+    }
+    
+    public TargetingStrategy getTargeting() {
+        return targeting;
+    }
+    
+    public void setTargeting(TargetingStrategy targeting) {
+        this.targeting = targeting;
+        this.currentTarget = null;
+    }
+    
+    /**
+     * Duerme la torre hasta wakeTime o hasta que movementEpoch cambie.
+     */
+    public void sleep(double wakeTime, int movementEpoch) {
+        this.sleepUntil = wakeTime;
+        this.sleepEpoch = movementEpoch;
+    }
+    
+    public boolean isSleeping(double now, int movementEpoch) {
+        return now < sleepUntil && movementEpoch == sleepEpoch;
+    }
+    
+    /**
+     * @return false si la torre buscó objetivo y no encontró ninguno (puede dormir)
+     */
+    public boolean update(float tpf, EnemyManager enemyManager) {
+        if (position == null) return false;
         
         cooldownTimer -= tpf;
         
-        if (cooldownTimer <= 0) {
-            if (type == TowerType.ATTACK) {
-                attackNearestEnemy(enemyManager);
-            } else if (type == TowerType.SLOW) {
-                slowEnemiesInRange(enemyManager);
-            }
+        if (cooldownTimer > 0) return true;
+        
+        if (type == TowerType.ATTACK) {
+            return attackTarget(enemyManager);
         }
+        return slowEnemiesInRange(enemyManager);
     }
     
-    private void attackNearestEnemy(EnemyManager enemyManager) {
-        Enemy nearestEnemy = null;
-        float minDistance = Float.MAX_VALUE;
+    private boolean attackTarget(EnemyManager enemyManager) {
+        Enemy target = laneCoverage != null
+            ? selectTarget(enemyManager)
+            : enemyManager.findNearestEnemy(position, Constants.ATTACK_TOWER_RANGE);
         
-        for (Enemy enemy : enemyManager.getActiveEnemies()) {
-            if (!enemy.isAlive()) continue;
-            
-            float distance = position.distance(enemy.getPosition());
-            if (distance < Constants.ATTACK_TOWER_RANGE && distance < minDistance) {
-                nearestEnemy = enemy;
-                minDistance = distance;
+        if (target != null) {
+            if (projectiles != null) {
+                projectiles.launch(position, target, Constants.ATTACK_TOWER_DAMAGE);
+            } else {
+                target.takeDamage(Constants.ATTACK_TOWER_DAMAGE);
             }
-        }
-        
-        if (nearestEnemy != null) {
-            nearestEnemy.takeDamage(Constants.ATTACK_TOWER_DAMAGE);
             cooldownTimer = Constants.ATTACK_TOWER_COOLDOWN;
+            return true;
         }
+        return false;
     }
     
-    private void slowEnemiesInRange(EnemyManager enemyManager) {
+    /**
+     * Mantiene el objetivo actual hasta que muere o sale de la cobertura.
+     */
+    private Enemy selectTarget(EnemyManager enemyManager) {
+        if (currentTarget == null || !enemyManager.isInCoverage(currentTarget, laneCoverage)) {
+            currentTarget = targeting.selectTarget(enemyManager, position, laneCoverage);
+        }
+        return currentTarget;
+    }
+    
+    private boolean slowEnemiesInRange(EnemyManager enemyManager) {
         boolean hasSlowedEnemies = false;
         
-        for (Enemy enemy : enemyManager.getActiveEnemies()) {
+        enemiesInRange.clear();
+        if (laneCoverage != null) {
+            enemyManager.getEnemiesInCoverage(laneCoverage, enemiesInRange);
+        } else {
+            enemyManager.getEnemiesInRange(position, Constants.SLOW_TOWER_RANGE, enemiesInRange);
+        }
+        for (int i = 0; i < enemiesInRange.size(); i++) {
+            Enemy enemy = enemiesInRange.get(i);
             if (!enemy.isAlive()) continue;
             
-            float distance = position.distance(enemy.getPosition());
-            if (distance < Constants.SLOW_TOWER_RANGE) {
-                enemy.applySlow(Constants.SLOW_TOWER_FACTOR);
-                hasSlowedEnemies = true;
-            }
+            enemyManager.getStatusEffects().apply(enemy, StatusEffectType.SLOW,
+                Constants.SLOW_TOWER_FACTOR, Constants.SLOW_EFFECT_DURATION, this);
+            hasSlowedEnemies = true;
         }
+        enemiesInRange.clear();
         
         if (hasSlowedEnemies) {
             cooldownTimer = Constants.SLOW_TOWER_COOLDOWN;
         }
+        return hasSlowedEnemies;
     }
 }
\ No newline at end of file
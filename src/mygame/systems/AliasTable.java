@@ -0,0 +1,84 @@
+package mygame.systems;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tabla de alias (método de Vose) para muestrear un índice según pesos en O(1):
+ * se elige una columna uniforme y, con su probabilidad, la propia columna o su alias.
+ * Se construye una vez por oleada en O(n).
+ */
+class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param weights pesos no negativos (no hace falta que sumen 1); al menos uno > 0
+     */
+    AliasTable(float[] weights) {
+        int n = weights.length;
+        probability = new double[n];
+        alias = new int[n];
+
+        double total = 0;
+        for (float weight : weights) {
+            total += weight;
+        }
+        if (n == 0 || total <= 0) {
+            throw new IllegalArgumentException("La tabla de alias necesita algún peso positivo");
+        }
+
+        // Probabilidades escaladas a media 1; pilas de columnas por debajo y por encima
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Lo que queda vale 1 salvo error de redondeo
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * Índice muestreado con una sola extracción de random.
+     */
+    int sample(SplittableRandom random) {
+        double x = random.nextDouble() * probability.length;
+        int column = (int) x;
+        return x - column < probability[column] ? column : alias[column];
+    }
+
+    int size() {
+        return probability.length;
+    }
+}
@@ -0,0 +1,93 @@
+package mygame.systems;
+
+import java.util.Arrays;
+import mygame.entities.Enemy;
+
+/**
+ * Montículo mínimo de llegadas al castillo ordenado por tiempo de simulación.
+ * Cada entrada lleva un id; si la velocidad del enemigo cambia se programa una
+ * llegada nueva y la antigua queda obsoleta (EnemySimStore la descarta al sacarla).
+ */
+class ArrivalQueue {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private double[] times = new double[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private Enemy[] enemies = new Enemy[INITIAL_CAPACITY];
+    private int size = 0;
+
+    void push(double time, Enemy enemy, long id) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            enemies = Arrays.copyOf(enemies, capacity);
+        }
+
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (times[parent] <= time) break;
+            move(parent, i);
+            i = parent;
+        }
+        times[i] = time;
+        ids[i] = id;
+        enemies[i] = enemy;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    double peekTime() {
+        return times[0];
+    }
+
+    long peekId() {
+        return ids[0];
+    }
+
+    Enemy peekEnemy() {
+        return enemies[0];
+    }
+
+    void pop() {
+        int last = --size;
+        double time = times[last];
+        long id = ids[last];
+        Enemy enemy = enemies[last];
+        enemies[last] = null;
+        if (last == 0) return;
+
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= last) break;
+            if (child + 1 < last && times[child + 1] < times[child]) {
+                child++;
+            }
+            if (time <= times[child]) break;
+            move(child, i);
+            i = child;
+        }
+        times[i] = time;
+        ids[i] = id;
+        enemies[i] = enemy;
+    }
+
+    void clear() {
+        Arrays.fill(enemies, 0, size, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        ids[to] = ids[from];
+        enemies[to] = enemies[from];
+    }
+}
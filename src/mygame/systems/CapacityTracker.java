@@ -0,0 +1,83 @@
+package mygame.systems;
+
+/**
+ * Mide cuántos enemigos vivos aguanta el juego sin salirse del presupuesto de frame.
+ * Agrupa los frames en ventanas de windowSeconds: una ventana cuenta si ningún frame
+ * superó el presupuesto, y aporta el mínimo de enemigos vivos que hubo en ella. El pico
+ * sostenido es el mayor de esos mínimos, así que un solo frame bueno no lo infla.
+ */
+public class CapacityTracker {
+    private final float frameBudget;
+    private final float windowSeconds;
+    private float windowTime = 0f;
+    private boolean windowWithinBudget = true;
+    private int windowMinEnemies = Integer.MAX_VALUE;
+    private float worstFrame = 0f;
+    private int peakSustained = 0;
+    private int peakEnemies = 0;
+    // Ventanas seguidas que se han salido del presupuesto
+    private int overBudgetWindows = 0;
+
+    public CapacityTracker(float frameBudget, float windowSeconds) {
+        this.frameBudget = frameBudget;
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * Registra un frame cuya simulación (ticks más volcado a escena) tardó frameSeconds con liveEnemies enemigos.
+     * windowStep es lo que avanza la ventana (tiempo simulado en headless, tpf en juego).
+     */
+    public void record(float frameSeconds, float windowStep, int liveEnemies) {
+        peakEnemies = Math.max(peakEnemies, liveEnemies);
+        worstFrame = Math.max(worstFrame, frameSeconds);
+        windowMinEnemies = Math.min(windowMinEnemies, liveEnemies);
+        if (frameSeconds > frameBudget) {
+            windowWithinBudget = false;
+        }
+
+        windowTime += windowStep;
+        if (windowTime < windowSeconds) return;
+
+        if (windowWithinBudget) {
+            peakSustained = Math.max(peakSustained, windowMinEnemies);
+            overBudgetWindows = 0;
+        } else {
+            overBudgetWindows++;
+        }
+        windowTime = 0f;
+        windowWithinBudget = true;
+        windowMinEnemies = Integer.MAX_VALUE;
+    }
+
+    public void reset() {
+        windowTime = 0f;
+        windowWithinBudget = true;
+        windowMinEnemies = Integer.MAX_VALUE;
+        worstFrame = 0f;
+        peakSustained = 0;
+        peakEnemies = 0;
+        overBudgetWindows = 0;
+    }
+
+    /**
+     * Mayor número de enemigos vivos mantenido una ventana entera dentro del presupuesto.
+     */
+    public int getPeakSustained() {
+        return peakSustained;
+    }
+
+    public int getPeakEnemies() {
+        return peakEnemies;
+    }
+
+    public float getWorstFrame() {
+        return worstFrame;
+    }
+
+    /**
+     * Ventanas completas seguidas fuera del presupuesto hasta la última cerrada.
+     */
+    public int getOverBudgetWindows() {
+        return overBudgetWindows;
+    }
+}
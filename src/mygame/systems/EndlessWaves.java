@@ -0,0 +1,79 @@
+package mygame.systems;
+
+import mygame.entities.Enemy.EnemyType;
+import mygame.utils.Constants;
+
+/**
+ * Curva de dificultad del modo infinito: genera la oleada n a partir de unos pocos
+ * parámetros. El número de enemigos y su vida crecen de forma geométrica y el
+ * intervalo entre apariciones se acorta hasta minInterval. Los tipos fuertes ganan
+ * peso poco a poco y cada bossEvery oleadas aparece un boss en el carril central.
+ */
+public class EndlessWaves {
+    private static final EnemyType[] TYPES = {
+        EnemyType.BLUE_DEMON, EnemyType.DEMON, EnemyType.ORC_SKULL, EnemyType.GHOST_SKULL
+    };
+
+    final int baseCount;
+    final float countGrowth;
+    final float baseInterval;
+    final float intervalDecay;
+    final float minInterval;
+    final float healthGrowth;
+    final float countdown;
+    // Cada cuántas oleadas hay boss (0 = nunca)
+    final int bossEvery;
+
+    public EndlessWaves(int baseCount, float countGrowth, float baseInterval, float intervalDecay,
+                        float minInterval, float healthGrowth, float countdown, int bossEvery) {
+        if (baseCount <= 0 || countGrowth < 1f || minInterval <= 0f || baseInterval < minInterval) {
+            throw new IllegalArgumentException("Curva de dificultad del modo infinito inválida");
+        }
+        this.baseCount = baseCount;
+        this.countGrowth = countGrowth;
+        this.baseInterval = baseInterval;
+        this.intervalDecay = intervalDecay;
+        this.minInterval = minInterval;
+        this.healthGrowth = healthGrowth;
+        this.countdown = countdown;
+        this.bossEvery = bossEvery;
+    }
+
+    public static EndlessWaves createDefault() {
+        return new EndlessWaves(Constants.ENDLESS_BASE_COUNT, Constants.ENDLESS_COUNT_GROWTH,
+            Constants.ENDLESS_BASE_INTERVAL, Constants.ENDLESS_INTERVAL_DECAY, Constants.ENDLESS_MIN_INTERVAL,
+            Constants.ENDLESS_HEALTH_GROWTH, Constants.ENDLESS_COUNTDOWN, Constants.ENDLESS_BOSS_EVERY);
+    }
+
+    /**
+     * Oleada level del modo infinito (0 = la primera tras las oleadas fijas).
+     * Reparte los enemigos en un grupo por carril para que la presión sea pareja.
+     */
+    WaveDefinition generate(int level, int laneCount) {
+        int count = (int) Math.min(Integer.MAX_VALUE, Math.round(baseCount * Math.pow(countGrowth, level)));
+        float interval = Math.max(minInterval, baseInterval * (float) Math.pow(intervalDecay, level));
+        float healthMultiplier = (float) Math.pow(healthGrowth, level);
+
+        float strongWeight = Math.min(1f, 0.1f * level);
+        float[] weights = {1f, 1f, strongWeight, strongWeight};
+        EnemyType[] types = TYPES;
+        if (strongWeight == 0f) {
+            types = new EnemyType[]{EnemyType.BLUE_DEMON, EnemyType.DEMON};
+            weights = new float[]{1f, 1f};
+        }
+
+        // Cada carril recibe su parte con el intervalo multiplicado por laneCount,
+        // desfasado para que el ritmo total siga siendo uno cada interval segundos
+        WaveDefinition.SpawnGroup[] groups = new WaveDefinition.SpawnGroup[laneCount];
+        for (int lane = 0; lane < laneCount; lane++) {
+            int laneShare = count / laneCount + (lane < count % laneCount ? 1 : 0);
+            groups[lane] = new WaveDefinition.SpawnGroup((lane + 1 - laneCount) * interval, laneShare,
+                interval * laneCount, types, weights, new int[]{lane});
+        }
+
+        boolean boss = bossEvery > 0 && (level + 1) % bossEvery == 0;
+        String announcement = "¡Oleada infinita " + (level + 1) + "! " + count + " enemigos, vida x"
+            + String.format("%.2f", healthMultiplier) + (boss ? " y BOSS" : "");
+        return new WaveDefinition(announcement, countdown, groups, boss ? laneCount / 2 : -1, healthMultiplier);
+    }
+}
@@ -1,8 +1,12 @@
 package mygame.systems;
 
 import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bullet.PhysicsSpace;
 import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
 import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
 import mygame.entities.Castle;
 import mygame.entities.Enemy;
 import mygame.entities.Enemy.EnemyType;
@@ -10,25 +14,84 @@ import mygame.entities.Boss;
 import mygame.ui.GameHealthDisplay;
 import mygame.utils.Constants;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class EnemyManager {
+    private static final Predicate<Enemy> IS_ALIVE = Enemy::isAlive;
+    // values() copia el array en cada llamada
+    private static final EnemyType[] ENEMY_TYPES = EnemyType.values();
+
     private final AssetManager assetManager;
     private final Node rootNode;
+    // Padre de los enemigos de cada carril: las altas y bajas no tocan los hijos de rootNode
+    private final Node[] laneNodes;
+    private final SceneMutationQueue sceneMutations = new SceneMutationQueue();
     private final Castle castle;
     private final Path[] paths;
+    // Enemigos de cada carril ordenados por pathT, para las estrategias de objetivo
+    private final LaneIndex[] laneIndices;
     private final List<Enemy> activeEnemies = new ArrayList<>();
-    private Wave currentWave;
+    private final List<Enemy> activeEnemiesView = Collections.unmodifiableList(activeEnemies);
+    // Enemigos generados en el tick actual, pendientes de entrar en escena
+    private final List<Enemy> spawnBatch = new ArrayList<>();
+    // Enemigos ya fuera de la simulación que terminan su animación de muerte en escena
+    private Enemy[] dyingEnemies = new Enemy[16];
+    private float[] dyingTimers = new float[16];
+    private int dyingCount = 0;
+    // Enemigos que vuelven al pool cuando se haya aplicado su baja de la escena
+    private final List<Enemy> pendingRecycle = new ArrayList<>();
+    private final SpatialHashGrid<Enemy> enemyGrid =
+        new SpatialHashGrid<>(Constants.ENEMY_GRID_CELL_SIZE, Constants.ENEMY_GRID_BUCKETS);
+    // Oleadas de la partida; sin fichero de campaña, las originales
+    private WaveCampaign campaign = WaveCampaign.createDefault();
+    private WaveDefinition currentWave;
+    // Apariciones de currentWave ya sorteadas, ordenadas por tiempo
+    private SpawnTimeline timeline;
+    private final EnemyPool enemyPool;
+    private final EnemySimStore simStore = new EnemySimStore();
+    private final StatusEffects statusEffects = new StatusEffects(simStore);
+    private final SiegeAggregator siege;
+    private EnemyPhysicsProxies physicsProxies;
+    private final Vector3f tempPosition = new Vector3f();
+    private boolean enemyGridDirty = false;
+    private float lastStepSeconds = 0f;
+    
+    // Cámara para sincronizar solo los enemigos visibles (null = sincronizar todos)
+    private Camera camera;
+    private final BoundingSphere visibilityBound =
+        new BoundingSphere(Constants.ENEMY_VISIBILITY_RADIUS, new Vector3f());
+    // Tramos de t de cada carril que pueden verse este frame; los enemigos de fuera
+    // se ocultan sin calcular su posición
+    private final float[][] visibleSpans;
+    private final int[] visibleSpanLengths;
+    private final BoundingSphere spanBound = new BoundingSphere();
+    // Con foco (el jugador), solo los enemigos cerca de él tienen proxy de colisión
+    private Spatial proxyFocus;
+    private final float[][] proxySpans;
+    private final int[] proxySpanLengths;
     private int currentWaveIndex = -1;
     private float waveTimer = 0;
-    private float spawnTimer = 0;
     private boolean waveInProgress = false;
     private boolean bossSpawned = false;
     private boolean bossDefeated = false;
     private boolean allWavesCompleted = false;
     private boolean paused = false;
-    private final Random random = new Random();
+    // Flujos aleatorios independientes derivados de una misma semilla: añadir tiradas
+    // a uno no cambia la secuencia de los demás
+    private SplittableRandom spawnTypeRandom;
+    private SplittableRandom spawnLaneRandom;
+    private SplittableRandom combatRandom;
+    // Semilla fijada con setRandomSeed; reset() vuelve a partir de ella
+    private long randomSeed;
+    private boolean seeded = false;
+    // Rampa de capacidad: los que llegan al castillo salen en lugar de sumarse al asedio
+    private boolean despawnOnArrival = false;
+    private int leakedEnemies = 0;
     private GameHealthDisplay healthDisplay;
     
     // Variables para el countdown
@@ -43,16 +106,103 @@ public class EnemyManager {
         this.rootNode = rootNode;
         this.castle = castle;
         this.paths = setupPaths();
-        for (Path path : paths) {
-            path.debugDraw(assetManager, rootNode);
+        this.laneIndices = new LaneIndex[paths.length];
+        this.laneNodes = new Node[paths.length];
+        this.visibleSpans = new float[paths.length][];
+        this.visibleSpanLengths = new int[paths.length];
+        this.proxySpans = new float[paths.length][];
+        this.proxySpanLengths = new int[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            laneIndices[i] = new LaneIndex();
+            visibleSpans[i] = new float[2 * paths[i].getSegmentCount()];
+            proxySpans[i] = new float[2 * paths[i].getSegmentCount()];
+            laneNodes[i] = new Node("EnemiesLane" + i);
+            rootNode.attachChild(laneNodes[i]);
+        }
+        this.enemyPool = new EnemyPool(assetManager);
+        this.siege = new SiegeAggregator(sceneMutations, laneNodes, simStore, Constants.ENEMY_ATTACK_INTERVAL);
+        splitRandomStreams(new SplittableRandom());
+        // Sin AssetManager (modo headless) no se dibujan los caminos
+        if (assetManager != null) {
+            for (Path path : paths) {
+                path.debugDraw(assetManager, rootNode);
+            }
         }
-        startCountdown(0, Constants.WAVE_START_DELAY);
+        startCountdown(0);
     }
 
     public void setHealthDisplay(GameHealthDisplay healthDisplay) {
         this.healthDisplay = healthDisplay;
     }
     
+    /**
+     * Fija la semilla de los generadores aleatorios para que una partida sea reproducible.
+     */
+    public void setRandomSeed(long seed) {
+        randomSeed = seed;
+        seeded = true;
+        splitRandomStreams(new SplittableRandom(seed));
+    }
+    
+    /**
+     * Si despawn es true, los enemigos que llegan al castillo salen de la partida en vez
+     * de sumarse al asedio (cuentan como filtrados). Para medir capacidad sin que los
+     * atacantes acumulados llenen la memoria.
+     */
+    public void setDespawnOnArrival(boolean despawn) {
+        this.despawnOnArrival = despawn;
+    }
+
+    /**
+     * Sustituye las oleadas de la partida y vuelve a la cuenta atrás de la primera.
+     * Se llama antes de empezar a jugar, con la escena sin enemigos.
+     */
+    public void setCampaign(WaveCampaign campaign) {
+        this.campaign = campaign;
+        resetWaveState();
+        startCountdown(0);
+    }
+
+    public WaveCampaign getCampaign() {
+        return campaign;
+    }
+
+    private void splitRandomStreams(SplittableRandom root) {
+        spawnTypeRandom = root.split();
+        spawnLaneRandom = root.split();
+        combatRandom = root.split();
+    }
+    
+    /**
+     * Flujo aleatorio reservado para tiradas de combate (críticos, esquivas...).
+     */
+    public SplittableRandom getCombatRandom() {
+        return combatRandom;
+    }
+    
+    public void setCamera(Camera camera) {
+        this.camera = camera;
+    }
+    
+    /**
+     * Registra los enemigos en physicsSpace como proxies de solo consulta.
+     * Los proxies se asignan en la sincronización del siguiente tick.
+     */
+    public void setPhysicsSpace(PhysicsSpace physicsSpace) {
+        if (physicsProxies != null) {
+            physicsProxies.detachAll(simStore);
+        }
+        physicsProxies = physicsSpace != null ? new EnemyPhysicsProxies(physicsSpace) : null;
+    }
+
+    /**
+     * Limita los proxies de colisión a los enemigos a menos de ENEMY_PROXY_RANGE de
+     * focus (el jugador). Sin foco, todos los enemigos en marcha tienen proxy.
+     */
+    public void setProxyFocus(Spatial focus) {
+        this.proxyFocus = focus;
+    }
+    
     public void setTowerManager(TowerManager towerManager) {
         this.towerManager = towerManager;
     }
@@ -89,55 +239,472 @@ public class EnemyManager {
     public void update(float tpf) {
         if (paused || castle.isDestroyed()) return;
 
+        updateWaves(tpf);
+        applyEndOfTick(tpf);
+    }
+
+    private void updateWaves(float tpf) {
         if (inCountdown) {
             countdownTimer -= tpf;
+            prewarmPool();
             if (countdownTimer <= 0) {
                 inCountdown = false;
                 startNextWave();
             }
+            // En el modo infinito la cuenta atrás empieza con enemigos aún en el mapa
+            if (!activeEnemies.isEmpty()) {
+                updateActiveEnemies(tpf);
+            }
             return;
         }
 
         if (!waveInProgress) return;
 
+        float tickStart = waveTimer;
         waveTimer += tpf;
-        spawnTimer += tpf;
-
-        if (spawnTimer >= currentWave.spawnInterval && currentWave.enemiesToSpawn > 0) {
-            spawnEnemy();
-            spawnTimer = 0;
-            currentWave.enemiesToSpawn--;
+        for (int i = timeline.pollDue(waveTimer); i >= 0; i = timeline.pollDue(waveTimer)) {
+            // Instante exacto de la aparición dentro del tick (el reloj aún no ha avanzado)
+            double spawnTime = simStore.simTime + Math.max(0f, timeline.times[i] - tickStart);
+            if (timeline.types[i] == SpawnTimeline.BOSS) {
+                spawnBoss(timeline.lanes[i], spawnTime);
+            } else {
+                spawnEnemy(ENEMY_TYPES[timeline.types[i]], timeline.lanes[i], spawnTime);
+            }
         }
+        attachSpawnBatch();
 
         updateActiveEnemies(tpf);
         checkWaveCompletion();
     }
 
     private void updateActiveEnemies(float tpf) {
-        for (int i = 0; i < activeEnemies.size(); i++) {
-            Enemy enemy = activeEnemies.get(i);
-            if (!paused) {
-                enemy.update(tpf);
+        if (!paused) {
+            simStore.advanceTime(tpf);
+            lastStepSeconds = tpf;
+            statusEffects.advance(simStore.simTime);
+            processCastleArrivals();
+            updateCastleAttacks();
+            if (physicsProxies != null) {
+                syncProxies();
+            }
+            enemyGridDirty = true;
+        }
+        
+        // El store apunta las muertes: con miles de enemigos no se recorre la lista
+        if (!simStore.deaths.isEmpty()) {
+            removeDeadEnemies();
+            enemyGridDirty = true;
+        }
+    }
+
+    /**
+     * Procesa las llegadas al castillo programadas que ya han vencido.
+     * El movimiento en sí no se simula: la posición se deduce del tiempo.
+     * Los que llegan pasan al asedio agregado y se quedan congelados en el store.
+     */
+    private void processCastleArrivals() {
+        EnemySimStore s = simStore;
+        for (int slot = s.pollDueArrival(); slot >= 0; slot = s.pollDueArrival()) {
+            if (s.health[slot] <= 0) continue;
+
+            leakedEnemies++;
+            if (despawnOnArrival) {
+                s.enemies[slot].takeDamage(s.health[slot]);
+                continue;
+            }
+            s.markArrived(slot);
+
+            Enemy enemy = s.enemies[slot];
+            if (physicsProxies != null) {
+                physicsProxies.detach(s, slot);
+            }
+            enemy.syncTransform(s.getPosition(slot, tempPosition));
+            siege.addAttacker(enemy, s.damage[slot]);
+        }
+    }
+
+    /**
+     * Aplica de una vez el daño de los atacantes que golpean en este tick.
+     */
+    private void updateCastleAttacks() {
+        int totalDamage = siege.update();
+        if (totalDamage > 0 && !castle.isDestroyed()) {
+            castle.takeDamage(totalDamage);
+        }
+    }
+
+    /**
+     * Copia a los proxies la posición de los enemigos que los necesitan: los que están
+     * en los tramos de camino cercanos al foco, o todos si no hay foco.
+     */
+    private void syncProxies() {
+        if (proxyFocus == null) {
+            physicsProxies.sync(simStore, null, null);
+            return;
+        }
+
+        Vector3f focus = proxyFocus.getWorldTranslation();
+        for (int lane = 0; lane < paths.length; lane++) {
+            proxySpanLengths[lane] = paths[lane].computeCoverage(focus, Constants.ENEMY_PROXY_RANGE, proxySpans[lane]);
+        }
+        physicsProxies.sync(simStore, proxySpans, proxySpanLengths);
+    }
+
+    /**
+     * Sincroniza con el grafo de escena solo los enemigos dentro del frustum de la cámara.
+     * Primero se descartan por carril los tramos de camino que no se ven, y solo se calcula
+     * la posición de los enemigos que caen en un tramo visible. Los que quedan fuera se
+     * ocultan para que su nodo no se dibuje en una posición vieja.
+     * Se llama una vez por frame; alpha sitúa el render entre los dos últimos ticks.
+     */
+    public void syncScene(float alpha) {
+        EnemySimStore s = simStore;
+        double renderTime = paused ? s.simTime : s.simTime - (1f - alpha) * lastStepSeconds;
+        if (camera != null) {
+            for (int lane = 0; lane < paths.length; lane++) {
+                visibleSpanLengths[lane] = paths[lane].computeVisibleSpans(
+                    camera, Constants.ENEMY_VISIBILITY_RADIUS, spanBound, visibleSpans[lane]);
             }
+        }
+        for (int i = 0; i < s.size; i++) {
+            // Los atacantes del castillo no se mueven; su representante ya está colocado
+            if (s.health[i] <= 0 || s.attackingCastle[i]) continue;
 
-            if (!enemy.isAlive()) {
-                if (enemy instanceof Boss && bossSpawned && !bossDefeated) {
-                    bossDefeated = true;
-                    System.out.println("¡BOSS FINAL DERROTADO!");
-                    if (healthDisplay != null) {
-                        healthDisplay.setBoss(null);
+            float t = s.getPathTAt(i, renderTime);
+            int lane = s.lanes[i];
+            boolean visible = camera == null || Path.coverageContains(visibleSpans[lane], visibleSpanLengths[lane], t);
+            if (visible) {
+                s.paths[i].getPositionAlongPath(t, tempPosition);
+                visible = isInView(tempPosition.x, tempPosition.y, tempPosition.z);
+            }
+            if (visible != s.visible[i]) {
+                s.visible[i] = visible;
+                s.enemies[i].setVisible(visible);
+            }
+            if (visible) {
+                s.enemies[i].syncTransform(tempPosition);
+            }
+        }
+    }
+
+    private boolean isInView(float x, float y, float z) {
+        if (camera == null) return true;
+
+        visibilityBound.getCenter().set(x, y, z);
+        // contains() se salta los planos marcados en planeState por pruebas anteriores
+        camera.setPlaneState(0);
+        return camera.contains(visibilityBound) != Camera.FrustumIntersect.Outside;
+    }
+
+    /**
+     * Saca de la simulación a los muertos del tick. activeEnemies sigue el mismo orden
+     * que los slots de EnemySimStore, así que se quitan con el mismo swap-remove: O(1)
+     * por muerte en lugar de compactar la lista entera.
+     */
+    private void removeDeadEnemies() {
+        List<Enemy> deaths = simStore.deaths;
+        for (int d = 0; d < deaths.size(); d++) {
+            Enemy enemy = deaths.get(d);
+            int slot = enemy.getSlot();
+            if (slot < 0) continue;
+
+            if (enemy instanceof Boss && bossSpawned && !bossDefeated) {
+                bossDefeated = true;
+                System.out.println("¡BOSS FINAL DERROTADO!");
+                if (healthDisplay != null) {
+                    healthDisplay.setBoss(null);
+                }
+            }
+            if (physicsProxies != null) {
+                physicsProxies.detach(simStore, slot);
+            }
+            laneIndices[simStore.lanes[slot]].markRemoved();
+            if (simStore.attackingCastle[slot]) {
+                siege.removeAttacker(enemy, simStore.damage[slot]);
+            }
+            statusEffects.removeAll(enemy);
+
+            int last = activeEnemies.size() - 1;
+            activeEnemies.set(slot, activeEnemies.get(last));
+            activeEnemies.remove(last);
+            simStore.remove(slot);
+            despawn(enemy);
+        }
+        deaths.clear();
+    }
+
+    /**
+     * Deja el cadáver en escena mientras dura su animación de muerte; si no tiene
+     * (o no se ve, como los atacantes ocultos del asedio) lo recicla ya.
+     */
+    private void despawn(Enemy enemy) {
+        float duration = Math.min(enemy.getDeathAnimationLength(), Constants.ENEMY_DEATH_ANIMATION_MAX);
+        if (duration <= 0f || !sceneMutations.isInScene(enemy.getNode())) {
+            recycle(enemy);
+            return;
+        }
+
+        if (dyingCount == dyingEnemies.length) {
+            dyingEnemies = Arrays.copyOf(dyingEnemies, dyingCount * 2);
+            dyingTimers = Arrays.copyOf(dyingTimers, dyingCount * 2);
+        }
+        dyingEnemies[dyingCount] = enemy;
+        dyingTimers[dyingCount] = duration;
+        dyingCount++;
+    }
+
+    private void recycle(Enemy enemy) {
+        sceneMutations.detach(enemy.getNode());
+        pendingRecycle.add(enemy);
+    }
+
+    /**
+     * Fase de fin de tick: avanza las animaciones de muerte, aplica de una vez las
+     * altas y bajas de escena acumuladas y devuelve al pool los ya descolgados.
+     */
+    private void applyEndOfTick(float tpf) {
+        int i = 0;
+        while (i < dyingCount) {
+            dyingTimers[i] -= tpf;
+            if (dyingTimers[i] > 0f) {
+                i++;
+                continue;
+            }
+            recycle(dyingEnemies[i]);
+            int last = --dyingCount;
+            dyingEnemies[i] = dyingEnemies[last];
+            dyingTimers[i] = dyingTimers[last];
+            dyingEnemies[last] = null;
+        }
+
+        // Las entradas de los muertos salen de los índices antes de que el pool los reutilice
+        for (LaneIndex index : laneIndices) {
+            index.compact();
+        }
+        sceneMutations.apply();
+
+        for (int r = 0; r < pendingRecycle.size(); r++) {
+            Enemy enemy = pendingRecycle.get(r);
+            enemy.setVisible(true);
+            if (!(enemy instanceof Boss)) {
+                enemyPool.release(enemy);
+            }
+        }
+        pendingRecycle.clear();
+    }
+
+    /**
+     * Reconstruye la rejilla solo cuando alguien la consulta tras un tick;
+     * si ninguna torre pregunta, no se calcula ninguna posición.
+     */
+    private void ensureEnemyGrid() {
+        if (!enemyGridDirty) return;
+        enemyGridDirty = false;
+
+        EnemySimStore s = simStore;
+        s.materializePositions();
+        enemyGrid.clear();
+        for (int i = 0; i < s.size; i++) {
+            if (s.health[i] <= 0) continue;
+            enemyGrid.insert(s.enemies[i], s.posX[i], s.posY[i], s.posZ[i]);
+        }
+    }
+
+    /**
+     * Enemigo vivo más cercano a position dentro de range, o null si no hay ninguno.
+     */
+    public Enemy findNearestEnemy(Vector3f position, float range) {
+        ensureEnemyGrid();
+        return enemyGrid.findNearest(position, range, IS_ALIVE);
+    }
+
+    /**
+     * Añade a result los enemigos dentro de range de position.
+     * Puede incluir enemigos que murieron durante este frame; comprobar isAlive().
+     */
+    public int getEnemiesInRange(Vector3f position, float range, List<Enemy> result) {
+        ensureEnemyGrid();
+        return enemyGrid.queryRadius(position, range, result);
+    }
+
+    /**
+     * Pone al día el orden por pathT de los carriles; solo trabaja una vez por tick.
+     */
+    private void ensureLaneIndices() {
+        for (LaneIndex index : laneIndices) {
+            index.refresh(simStore);
+        }
+    }
+
+    /**
+     * true si enemy sigue vivo y dentro de los tramos laneCoverage.
+     */
+    public boolean isInCoverage(Enemy enemy, float[][] laneCoverage) {
+        int slot = enemy.getSlot();
+        if (slot < 0 || simStore.enemies[slot] != enemy || simStore.health[slot] <= 0) return false;
+
+        float[] intervals = laneCoverage[simStore.lanes[slot]];
+        return intervals.length > 0 && Path.coverageContains(intervals, simStore.getPathT(slot));
+    }
+
+    /**
+     * Enemigo vivo de la cobertura al que le queda menos camino hasta el castillo.
+     */
+    public Enemy findFirstInCoverage(float[][] laneCoverage) {
+        ensureLaneIndices();
+        Enemy best = null;
+        float bestRemaining = Float.POSITIVE_INFINITY;
+        for (int lane = 0; lane < laneIndices.length; lane++) {
+            LaneIndex index = laneIndices[lane];
+            float[] intervals = laneCoverage[lane];
+            float length = paths[lane].getTotalLength();
+            // Los tramos van en orden creciente: el último con enemigos da el más avanzado
+            for (int k = intervals.length - 2; k >= 0; k -= 2) {
+                int i = index.firstAtOrBelow(intervals[k + 1]);
+                while (i < index.size && index.keys[i] >= intervals[k] && !index.order[i].isAlive()) {
+                    i++;
+                }
+                if (i < index.size && index.keys[i] >= intervals[k]) {
+                    float remaining = (1f - index.keys[i]) * length;
+                    if (remaining < bestRemaining) {
+                        bestRemaining = remaining;
+                        best = index.order[i];
                     }
+                    break;
                 }
-                
-                rootNode.detachChild(enemy.getNode());
-                activeEnemies.remove(i);
-                i--;
             }
         }
+        return best;
+    }
+
+    /**
+     * Enemigo vivo de la cobertura al que le queda más camino hasta el castillo.
+     */
+    public Enemy findLastInCoverage(float[][] laneCoverage) {
+        ensureLaneIndices();
+        Enemy best = null;
+        float bestRemaining = Float.NEGATIVE_INFINITY;
+        for (int lane = 0; lane < laneIndices.length; lane++) {
+            LaneIndex index = laneIndices[lane];
+            float[] intervals = laneCoverage[lane];
+            float length = paths[lane].getTotalLength();
+            for (int k = 0; k < intervals.length; k += 2) {
+                int i = index.lastAtOrAbove(intervals[k]);
+                while (i >= 0 && index.keys[i] <= intervals[k + 1] && !index.order[i].isAlive()) {
+                    i--;
+                }
+                if (i >= 0 && index.keys[i] <= intervals[k + 1]) {
+                    float remaining = (1f - index.keys[i]) * length;
+                    if (remaining > bestRemaining) {
+                        bestRemaining = remaining;
+                        best = index.order[i];
+                    }
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Enemigo vivo de la cobertura con más vida (strongest) o con menos.
+     * Recorre solo los enemigos que están dentro de los tramos.
+     */
+    public Enemy findByHealthInCoverage(float[][] laneCoverage, boolean strongest) {
+        ensureLaneIndices();
+        EnemySimStore s = simStore;
+        Enemy best = null;
+        int bestHealth = strongest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int lane = 0; lane < laneIndices.length; lane++) {
+            LaneIndex index = laneIndices[lane];
+            float[] intervals = laneCoverage[lane];
+            for (int k = 0; k < intervals.length; k += 2) {
+                for (int i = index.firstAtOrBelow(intervals[k + 1]); i < index.size && index.keys[i] >= intervals[k]; i++) {
+                    int health = s.health[index.order[i].getSlot()];
+                    if (health <= 0) continue;
+                    if (strongest ? health > bestHealth : health < bestHealth) {
+                        bestHealth = health;
+                        best = index.order[i];
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Enemigo vivo más cercano a position entre los que están en los tramos laneCoverage.
+     * t es longitud de arco normalizada, así que un enemigo a distancia d del mejor
+     * encontrado (nearestDist) descarta a todos los que tiene a menos de d - nearestDist
+     * de camino por detrás: se saltan con una búsqueda binaria sin calcular su posición.
+     */
+    public Enemy findNearestEnemyInCoverage(Vector3f position, float[][] laneCoverage) {
+        ensureLaneIndices();
+        EnemySimStore s = simStore;
+        Enemy nearest = null;
+        float nearestDist = Float.POSITIVE_INFINITY;
+        for (int lane = 0; lane < laneIndices.length; lane++) {
+            LaneIndex index = laneIndices[lane];
+            float[] intervals = laneCoverage[lane];
+            float invLength = 1f / paths[lane].getTotalLength();
+            for (int k = 0; k < intervals.length; k += 2) {
+                // Se empieza por el centro del tramo, el punto más cercano a la torre si
+                // el camino es recto ahí: un buen mejor inicial hace los saltos más largos
+                int seed = index.firstAtOrBelow((intervals[k] + intervals[k + 1]) * 0.5f);
+                if (seed < index.size && index.keys[seed] >= intervals[k] && s.health[index.order[seed].getSlot()] > 0) {
+                    float dist = paths[lane].getPositionAlongPath(index.keys[seed], tempPosition).distance(position);
+                    if (dist < nearestDist) {
+                        nearestDist = dist;
+                        nearest = index.order[seed];
+                    }
+                }
+
+                int i = index.firstAtOrBelow(intervals[k + 1]);
+                while (i < index.size && index.keys[i] >= intervals[k]) {
+                    float t = index.keys[i];
+                    if (s.health[index.order[i].getSlot()] <= 0) {
+                        i++;
+                        continue;
+                    }
+
+                    float dist = paths[lane].getPositionAlongPath(t, tempPosition).distance(position);
+                    if (dist < nearestDist) {
+                        nearestDist = dist;
+                        nearest = index.order[i];
+                        i++;
+                    } else {
+                        i = Math.max(i + 1, index.firstAtOrBelow(t - (dist - nearestDist) * invLength));
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Añade a result los enemigos vivos que están en los tramos laneCoverage.
+     */
+    public int getEnemiesInCoverage(float[][] laneCoverage, List<Enemy> result) {
+        ensureLaneIndices();
+        int count = 0;
+        for (int lane = 0; lane < laneIndices.length; lane++) {
+            LaneIndex index = laneIndices[lane];
+            float[] intervals = laneCoverage[lane];
+            for (int k = 0; k < intervals.length; k += 2) {
+                for (int i = index.firstAtOrBelow(intervals[k + 1]); i < index.size && index.keys[i] >= intervals[k]; i++) {
+                    if (!index.order[i].isAlive()) continue;
+                    result.add(index.order[i]);
+                    count++;
+                }
+            }
+        }
+        return count;
     }
 
     private void checkWaveCompletion() {
-        if (currentWave.enemiesToSpawn == 0 && activeEnemies.isEmpty()) {
+        // Las oleadas infinitas se solapan: la siguiente no espera a que el mapa se vacíe
+        boolean fieldCleared = activeEnemies.isEmpty() || campaign.isEndlessWave(currentWaveIndex);
+        if (timeline.isFinished() && fieldCleared) {
             handleWaveCompletion();
         }
     }
@@ -145,160 +712,119 @@ public class EnemyManager {
     private void handleWaveCompletion() {
         waveInProgress = false;
         System.out.println("Wave " + (currentWaveIndex + 1) + " completada!");
+        System.out.println("Pool de enemigos: " + enemyPool.getHits() + " reutilizados, "
+            + enemyPool.getMisses() + " creados");
 
-        if (currentWaveIndex == 2 && !bossSpawned) {
-            System.out.println("Preparando para spawnear boss...");
-            startCountdown(3, Constants.BOSS_COUNTDOWN_DURATION);
-            return;
-        }
-
-        if (bossSpawned && bossDefeated) {
+        if (!campaign.hasWave(currentWaveIndex + 1)) {
             allWavesCompleted = true;
             System.out.println("¡VICTORIA TOTAL!");
             return;
         }
 
-        if (currentWaveIndex < 2) {
-            startCountdown(currentWaveIndex + 1, Constants.WAVE_COUNTDOWN_DURATION);
+        if (campaign.get(currentWaveIndex + 1).hasBoss()) {
+            System.out.println("Preparando para spawnear boss...");
         }
+        startCountdown(currentWaveIndex + 1);
     }
 
-    private void startCountdown(int nextWave, float duration) {
+    private void startCountdown(int nextWave) {
         this.nextWaveIndex = nextWave;
-        this.countdownTimer = duration;
+        this.countdownTimer = campaign.get(nextWave).countdown;
         this.inCountdown = true;
         System.out.println("Siguiente oleada en " + countdownTimer + " segundos...");
     }
 
+    /**
+     * Precarga enemigos de la siguiente oleada durante el countdown, repartiendo
+     * el trabajo entre frames para no provocar tirones.
+     */
+    private void prewarmPool() {
+        WaveDefinition pendingWave = campaign.get(nextWaveIndex);
+
+        int budget = Constants.ENEMY_POOL_PREWARM_PER_FRAME;
+        for (WaveDefinition.SpawnGroup group : pendingWave.groups) {
+            float totalWeight = 0f;
+            for (float weight : group.weights) {
+                totalWeight += weight;
+            }
+            for (int i = 0; i < group.types.length && budget > 0; i++) {
+                int expected = (int) Math.ceil(group.weights[i] / totalWeight * group.count);
+                int target = Math.min(expected, Constants.ENEMY_POOL_PREWARM_PER_TYPE);
+                budget -= enemyPool.prewarm(group.types[i], target, paths[0], budget);
+            }
+        }
+    }
+
     private void startNextWave() {
         currentWaveIndex = nextWaveIndex;
+        currentWave = campaign.get(currentWaveIndex);
         
         // Resetear torres al comenzar nueva oleada (excepto para el boss)
-        if (towerManager != null && currentWaveIndex < 3) {
+        if (towerManager != null && !currentWave.hasBoss()) {
             towerManager.resetTowersForNewWave();
         }
         
-        if (currentWaveIndex == 3) {
-            spawnBoss();
-            return;
-        }
-        
-        switch (currentWaveIndex) {
-            case 0:
-                currentWave = new Wave(
-                    new EnemyType[]{EnemyType.BLUE_DEMON, EnemyType.DEMON},
-                    new float[]{0.5f, 0.5f},
-                    60,
-                    0.6f,
-                    new int[]{0, 1, 2}
-                );
-                System.out.println("¡Oleada 1 iniciada! Solo enemigos normales");
-                break;
-
-            case 1:
-                currentWave = new Wave(
-                    new EnemyType[]{
-                        EnemyType.BLUE_DEMON,
-                        EnemyType.DEMON,
-                        EnemyType.ORC_SKULL,
-                        EnemyType.GHOST_SKULL
-                    },
-                    new float[]{
-                        0.475f,
-                        0.472f,
-                        0.025f,
-                        0.025f
-                    },
-                    70,
-                    0.6f,
-                    new int[]{0, 1, 2}
-                );
-                System.out.println("¡Oleada 2 iniciada! Enemigos normales + Mini-Bosses");
-                break;
-
-            case 2:
-                currentWave = new Wave(
-                    new EnemyType[]{
-                        EnemyType.BLUE_DEMON,
-                        EnemyType.DEMON,
-                        EnemyType.ORC_SKULL,
-                        EnemyType.GHOST_SKULL
-                    },
-                    new float[]{
-                        0.4f,
-                        0.4f,
-                        0.1f,
-                        0.1f
-                    },
-                    80,
-                    0.5f,
-                    new int[]{0, 1, 2}
-                );
-                System.out.println("¡Oleada 3 iniciada! Enemigos fuertes");
-                break;
-
-            default:
-                System.out.println("No hay más oleadas definidas.");
-                waveInProgress = false;
-                return;
-        }
+        timeline = SpawnTimeline.compile(currentWave, spawnTypeRandom, spawnLaneRandom);
+        waveTimer = 0;
+        System.out.println(currentWave.announcement);
         
         waveInProgress = true;
     }
 
-    private void spawnBoss() {
-        if (paths == null || paths.length < 2) {
-            System.err.println("ERROR: No se encontró el path central para el boss");
-            return;
-        }
-
-        Path bossPath = paths[1];
-        Boss boss = new Boss(assetManager, bossPath, castle);
-        activeEnemies.add(boss);
-        rootNode.attachChild(boss.getNode());
+    private void spawnBoss(int pathIndex, double spawnTime) {
+        Path bossPath = paths[pathIndex];
+        Boss boss = new Boss(assetManager, bossPath);
+        simStore.add(boss, bossPath, pathIndex, boss.getSpawnHealth(currentWave.healthMultiplier),
+            boss.getType().speed, boss.getType().damage, spawnTime);
+        laneIndices[pathIndex].add(boss);
+        spawnBatch.add(boss);
         
         if (healthDisplay != null) {
             healthDisplay.setBoss(boss);
         }
 
         bossSpawned = true;
-        waveInProgress = true;
-        System.out.println("¡BOSS FINAL HA APARECIDO EN EL CAMINO CENTRAL!");
+        bossDefeated = false;
+        System.out.println("Boss generado en camino " + pathIndex);
     }
 
-    private void spawnEnemy() {
-        EnemyType type = selectRandomEnemyType();
-        int pathIndex = currentWave.spawnPathIndices[random.nextInt(currentWave.spawnPathIndices.length)];
+    private void spawnEnemy(EnemyType type, int pathIndex, double spawnTime) {
         Path path = paths[pathIndex];
 
-        Enemy enemy = new Enemy(assetManager, type, path, castle);
-        activeEnemies.add(enemy);
-        rootNode.attachChild(enemy.getNode());
-
-        System.out.println("Generado " + type + " en camino " + pathIndex);
+        Enemy enemy = enemyPool.obtain(type, path);
+        simStore.add(enemy, path, pathIndex, enemy.getSpawnHealth(currentWave.healthMultiplier), type.speed,
+            type.damage, spawnTime);
+        laneIndices[pathIndex].add(enemy);
+        spawnBatch.add(enemy);
     }
 
-    private EnemyType selectRandomEnemyType() {
-        float total = 0;
-        for (float prob : currentWave.enemyTypeProbabilities) {
-            total += prob;
-        }
-
-        float randomValue = random.nextFloat() * total;
-        float cumulative = 0;
+    /**
+     * Encola de una sola pasada la entrada en escena de todos los enemigos generados
+     * en este tick, con una sola línea de log por ráfaga. Sus proxies de colisión se
+     * asignan en la sincronización del mismo tick.
+     */
+    private void attachSpawnBatch() {
+        int count = spawnBatch.size();
+        if (count == 0) return;
 
-        for (int i = 0; i < currentWave.enemyTypes.length; i++) {
-            cumulative += currentWave.enemyTypeProbabilities[i];
-            if (randomValue <= cumulative) {
-                return currentWave.enemyTypes[i];
-            }
+        for (int i = 0; i < count; i++) {
+            Enemy enemy = spawnBatch.get(i);
+            sceneMutations.attach(laneNodes[simStore.lanes[enemy.getSlot()]], enemy.getNode());
         }
+        // Mismo orden que los slots recién asignados en el store
+        activeEnemies.addAll(spawnBatch);
 
-        return currentWave.enemyTypes[0];
+        if (count == 1) {
+            Enemy enemy = spawnBatch.get(0);
+            System.out.println("Generado " + enemy.getType() + " en camino " + simStore.lanes[enemy.getSlot()]);
+        } else {
+            System.out.println("Generados " + count + " enemigos en este tick");
+        }
+        spawnBatch.clear();
     }
 
     public boolean isGameWon() {
-        return bossSpawned && bossDefeated && allWavesCompleted;
+        return allWavesCompleted;
     }
 
     public void pause() {
@@ -327,6 +853,13 @@ public class EnemyManager {
         return nextWaveIndex;
     }
 
+    /**
+     * true si la oleada de la cuenta atrás actual es la de un boss.
+     */
+    public boolean isNextWaveBoss() {
+        return campaign.get(nextWaveIndex).hasBoss();
+    }
+
     public int getCurrentWaveIndex() { 
         return currentWaveIndex; 
     }
@@ -335,8 +868,90 @@ public class EnemyManager {
         return waveInProgress; 
     }
     
+    /**
+     * Vista de solo lectura de los enemigos activos, sin copia.
+     * Puede contener enemigos muertos hasta la siguiente fase de eliminación.
+     */
     public List<Enemy> getActiveEnemies() { 
-        return new ArrayList<>(activeEnemies); 
+        return activeEnemiesView; 
+    }
+    
+    /**
+     * Recorre los enemigos vivos sin crear copias de la lista. La lista solo cambia
+     * en update(), así que las muertes producidas durante el recorrido se saltan
+     * aquí y se eliminan en la siguiente actualización.
+     */
+    public void forEachAlive(Consumer<? super Enemy> action) {
+        for (int i = 0; i < activeEnemies.size(); i++) {
+            Enemy enemy = activeEnemies.get(i);
+            if (enemy.isAlive()) {
+                action.accept(enemy);
+            }
+        }
+    }
+    
+    public Path[] getPaths() {
+        return paths;
+    }
+
+    /**
+     * Tiempo de simulación en segundos. Solo avanza sin pausa, durante una oleada o
+     * con enemigos aún en el mapa, y vuelve a 0 cuando se vacía el store (reset, cleanup).
+     */
+    public double getSimulationTime() {
+        return simStore.getSimTime();
+    }
+
+    /**
+     * Cambia cada vez que aparece un enemigo o cambia alguna velocidad.
+     */
+    public int getMovementEpoch() {
+        return simStore.getMovementEpoch();
+    }
+
+    /**
+     * Segundos hasta que un enemigo entre en los tramos de camino laneCoverage.
+     * @see EnemySimStore#predictNextEntryDelay(float[][])
+     */
+    public float predictNextEntryDelay(float[][] laneCoverage) {
+        return simStore.predictNextEntryDelay(laneCoverage);
+    }
+
+    /**
+     * Efectos de estado (ralentización, daño en el tiempo, rotura de armadura) de los enemigos activos.
+     */
+    public StatusEffects getStatusEffects() {
+        return statusEffects;
+    }
+
+    /**
+     * Enemigos que están atacando el castillo, agregados por tipo.
+     */
+    public SiegeAggregator getSiege() {
+        return siege;
+    }
+
+    /**
+     * Número de enemigos que han llegado al castillo desde el inicio de la partida.
+     */
+    public int getLeakedEnemies() {
+        return leakedEnemies;
+    }
+    
+    public int getActiveEnemyCount() {
+        return simStore.size();
+    }
+
+    /**
+     * Enemigos vivos que aún recorren el camino: los que asedian el castillo se
+     * agregan en SiegeAggregator y ya no cuestan simulación propia.
+     */
+    public int getMovingEnemyCount() {
+        return simStore.size() - siege.getTotalAttackers();
+    }
+    
+    public EnemyPool getEnemyPool() {
+        return enemyPool;
     }
     
     public boolean isBossDefeated() { 
@@ -350,40 +965,83 @@ public class EnemyManager {
     public void cleanup() {
         paused = true;
         
-        for (Enemy enemy : activeEnemies) {
-            if (enemy.getNode().getParent() != null) {
-                rootNode.detachChild(enemy.getNode());
+        releaseActiveEnemies(false);
+        for (Node laneNode : laneNodes) {
+            laneNode.removeFromParent();
+        }
+        enemyPool.clear();
+        resetWaveState();
+        paused = false;
+        
+        System.out.println("EnemyManager limpiado y reseteado");
+    }
+
+    /**
+     * Reinicio en caliente: devuelve los enemigos activos al pool y vuelve a la
+     * cuenta atrás de la primera oleada. Caminos y pool se conservan, y con semilla
+     * fijada la nueva partida repite las mismas tiradas.
+     */
+    public void reset() {
+        releaseActiveEnemies(true);
+        resetWaveState();
+        if (seeded) {
+            splitRandomStreams(new SplittableRandom(randomSeed));
+        }
+        startCountdown(0);
+        
+        System.out.println("EnemyManager reiniciado (pool: " + enemyPool.getHits() + " reutilizados, "
+            + enemyPool.getMisses() + " creados)");
+    }
+
+    private void releaseActiveEnemies(boolean recycle) {
+        sceneMutations.clear();
+        for (int i = 0; i < dyingCount; i++) {
+            pendingRecycle.add(dyingEnemies[i]);
+            dyingEnemies[i] = null;
+        }
+        dyingCount = 0;
+        pendingRecycle.addAll(activeEnemies);
+        spawnBatch.clear();
+
+        // Vaciar los padres de carril de una vez; los atacantes ocultos ya no cuelgan de nada
+        for (Node laneNode : laneNodes) {
+            laneNode.detachAllChildren();
+        }
+        for (Enemy enemy : pendingRecycle) {
+            enemy.setVisible(true);
+            if (recycle && !(enemy instanceof Boss)) {
+                enemyPool.release(enemy);
             }
         }
+        pendingRecycle.clear();
         
         activeEnemies.clear();
+        if (physicsProxies != null) {
+            physicsProxies.detachAll(simStore);
+        }
+        simStore.clear();
+        statusEffects.clear();
+        siege.clear();
+        for (LaneIndex index : laneIndices) {
+            index.clear();
+        }
+        enemyGrid.clear();
+        enemyGridDirty = false;
+    }
+
+    private void resetWaveState() {
+        currentWave = null;
+        timeline = null;
         currentWaveIndex = -1;
+        nextWaveIndex = 0;
+        leakedEnemies = 0;
         waveTimer = 0;
-        spawnTimer = 0;
+        countdownTimer = 0;
         waveInProgress = false;
         bossSpawned = false;
         bossDefeated = false;
         allWavesCompleted = false;
         inCountdown = false;
         paused = false;
-        
-        System.out.println("EnemyManager limpiado y reseteado");
-    }
-
-    private static class Wave {
-        final EnemyType[] enemyTypes;
-        final float[] enemyTypeProbabilities;
-        int enemiesToSpawn;
-        final float spawnInterval;
-        final int[] spawnPathIndices;
-
-        Wave(EnemyType[] enemyTypes, float[] enemyTypeProbabilities, 
-             int enemiesToSpawn, float spawnInterval, int[] spawnPathIndices) {
-            this.enemyTypes = enemyTypes;
-            this.enemyTypeProbabilities = enemyTypeProbabilities;
-            this.enemiesToSpawn = enemiesToSpawn;
-            this.spawnInterval = spawnInterval;
-            this.spawnPathIndices = spawnPathIndices;
-        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package mygame.systems;
+
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.collision.shapes.CapsuleCollisionShape;
+import com.jme3.bullet.objects.PhysicsGhostObject;
+import com.jme3.math.Vector3f;
+import mygame.core.GamePhysics;
+import mygame.entities.Enemy;
+import mygame.entities.Enemy.EnemyType;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Proxies de colisión de los enemigos: ghost objects cinemáticos registrados en
+ * el PhysicsSpace solo para consultas (rayos, solapamientos con el jugador).
+ * La forma es compartida por tipo, los ghosts se reutilizan por tipo y sus
+ * posiciones se copian desde EnemySimStore en un único bucle por tick. Se asignan
+ * en ese bucle, y con foco solo a los enemigos cercanos al jugador. Todo se llama
+ * desde el update de EnemyManager, fuera del paso de Bullet (ver GamePhysics).
+ */
+public class EnemyPhysicsProxies {
+    private final PhysicsSpace physicsSpace;
+    private final Map<EnemyType, CapsuleCollisionShape> shapes = new EnumMap<>(EnemyType.class);
+    private final Map<EnemyType, ArrayDeque<PhysicsGhostObject>> available = new EnumMap<>(EnemyType.class);
+    // Altura del centro de la cápsula sobre los pies, indexada por ordinal del tipo
+    private final float[] centerOffsets = new float[EnemyType.values().length];
+    private final Vector3f tempLocation = new Vector3f();
+    private int created = 0;
+
+    public EnemyPhysicsProxies(PhysicsSpace physicsSpace) {
+        this.physicsSpace = physicsSpace;
+        for (EnemyType type : EnemyType.values()) {
+            float radius = 0.3f * type.scale;
+            float height = 1.5f * type.scale;
+            shapes.put(type, new CapsuleCollisionShape(radius, height));
+            available.put(type, new ArrayDeque<>());
+            centerOffsets[type.ordinal()] = radius + height / 2f;
+        }
+    }
+
+    /**
+     * Asigna un proxy al enemigo del slot y lo registra en el PhysicsSpace.
+     */
+    public void attach(EnemySimStore store, int slot) {
+        Enemy enemy = store.enemies[slot];
+        EnemyType type = enemy.getType();
+
+        PhysicsGhostObject ghost = available.get(type).pollFirst();
+        if (ghost == null) {
+            ghost = new PhysicsGhostObject(shapes.get(type));
+            GamePhysics.setEnemyGroup(ghost);
+            created++;
+        }
+
+        ghost.setUserObject(enemy);
+        store.getPosition(slot, tempLocation).y += centerOffsets[type.ordinal()];
+        ghost.setPhysicsLocation(tempLocation);
+        physicsSpace.add(ghost);
+        store.proxies[slot] = ghost;
+    }
+
+    /**
+     * Saca del PhysicsSpace el proxy del slot y lo devuelve al pool de su tipo.
+     */
+    public void detach(EnemySimStore store, int slot) {
+        PhysicsGhostObject ghost = store.proxies[slot];
+        if (ghost == null) return;
+
+        physicsSpace.remove(ghost);
+        ghost.setUserObject(null);
+        available.get(store.enemies[slot].getType()).addLast(ghost);
+        store.proxies[slot] = null;
+    }
+
+    public void detachAll(EnemySimStore store) {
+        for (int i = 0; i < store.size; i++) {
+            detach(store, i);
+        }
+    }
+
+    /**
+     * Copia la posición de simulación a los proxies de los enemigos en marcha. Con spans
+     * (tramos de t por carril, los primeros spanLengths[carril] floats) solo tienen proxy
+     * los que están dentro: los demás lo devuelven al pool sin calcular su posición.
+     * Sin spans, todos los enemigos en marcha tienen proxy.
+     */
+    public void sync(EnemySimStore store, float[][] spans, int[] spanLengths) {
+        PhysicsGhostObject[] proxies = store.proxies;
+        Enemy[] enemies = store.enemies;
+        for (int i = 0; i < store.size; i++) {
+            if (store.health[i] <= 0 || store.attackingCastle[i]) continue;
+
+            float t = store.getPathT(i);
+            int lane = store.lanes[i];
+            if (spans != null && !Path.coverageContains(spans[lane], spanLengths[lane], t)) {
+                detach(store, i);
+                continue;
+            }
+
+            PhysicsGhostObject ghost = proxies[i];
+            if (ghost == null) {
+                attach(store, i);
+                continue;
+            }
+            store.paths[i].getPositionAlongPath(t, tempLocation).y += centerOffsets[enemies[i].getType().ordinal()];
+            ghost.setPhysicsLocation(tempLocation);
+        }
+    }
+
+    public int getCreatedCount() {
+        return created;
+    }
+}
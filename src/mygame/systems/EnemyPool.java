@@ -0,0 +1,80 @@
+package mygame.systems;
+
+import com.jme3.asset.AssetManager;
+import mygame.entities.Enemy;
+import mygame.entities.Enemy.EnemyType;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pool de enemigos por tipo. Evita cargar el modelo y buscar
+ * las animaciones cada vez que aparece un enemigo.
+ */
+public class EnemyPool {
+    private final AssetManager assetManager;
+    private final Map<EnemyType, ArrayDeque<Enemy>> available = new EnumMap<>(EnemyType.class);
+
+    private int hits = 0;
+    private int misses = 0;
+
+    public EnemyPool(AssetManager assetManager) {
+        this.assetManager = assetManager;
+        for (EnemyType type : EnemyType.values()) {
+            available.put(type, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Devuelve un enemigo listo para recorrer path, reutilizado si hay alguno libre.
+     */
+    public Enemy obtain(EnemyType type, Path path) {
+        Enemy enemy = available.get(type).pollFirst();
+        if (enemy != null) {
+            hits++;
+            enemy.reset(path);
+            return enemy;
+        }
+
+        misses++;
+        return new Enemy(assetManager, type, path);
+    }
+
+    public void release(Enemy enemy) {
+        available.get(enemy.getType()).addLast(enemy);
+    }
+
+    /**
+     * Crea enemigos libres de type hasta tener target disponibles, sin superar budget.
+     * @return número de enemigos creados
+     */
+    public int prewarm(EnemyType type, int target, Path path, int budget) {
+        ArrayDeque<Enemy> pool = available.get(type);
+        int created = 0;
+        while (pool.size() < target && created < budget) {
+            pool.addLast(new Enemy(assetManager, type, path));
+            created++;
+        }
+        return created;
+    }
+
+    public int getAvailable(EnemyType type) {
+        return available.get(type).size();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public void clear() {
+        for (ArrayDeque<Enemy> pool : available.values()) {
+            pool.clear();
+        }
+        hits = 0;
+        misses = 0;
+    }
+}
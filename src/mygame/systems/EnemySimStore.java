@@ -0,0 +1,403 @@
+package mygame.systems;
+
+import com.jme3.bullet.objects.PhysicsGhostObject;
+import com.jme3.math.Vector3f;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import mygame.entities.Enemy;
+
+/**
+ * Estado de simulación de los enemigos en arrays paralelos (structure-of-arrays).
+ * Cada enemigo activo ocupa un slot denso; al eliminarlo se mueve el último
+ * slot a su hueco, así los bucles de EnemyManager recorren memoria contigua.
+ *
+ * El movimiento es analítico: entre cambios de velocidad el avance por el camino es
+ * lineal en el tiempo, así que cada slot solo guarda un ancla (tiempo, pathT, ritmo)
+ * y la posición se calcula cuando alguien la pide. La llegada al castillo se programa
+ * como un evento en lugar de comprobar pathT cada tick.
+ */
+public class EnemySimStore {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Arrays de acceso directo para los bucles de EnemyManager (mismo paquete)
+    int size = 0;
+    Enemy[] enemies = new Enemy[INITIAL_CAPACITY];
+    Path[] paths = new Path[INITIAL_CAPACITY];
+    // Índice del camino en EnemyManager (carril)
+    int[] lanes = new int[INITIAL_CAPACITY];
+    float[] invPathLength = new float[INITIAL_CAPACITY];
+    float[] baseSpeed = new float[INITIAL_CAPACITY];
+    float[] currentSpeed = new float[INITIAL_CAPACITY];
+    boolean[] slowed = new boolean[INITIAL_CAPACITY];
+    int[] health = new int[INITIAL_CAPACITY];
+    // Vida máxima efectiva con la que apareció (ya escalada por la oleada)
+    int[] maxHealth = new int[INITIAL_CAPACITY];
+    int[] damage = new int[INITIAL_CAPACITY];
+    boolean[] attackingCastle = new boolean[INITIAL_CAPACITY];
+    // Fase del intervalo de ataque en que golpea al castillo (SiegeAggregator)
+    int[] siegePhase = new int[INITIAL_CAPACITY];
+    // Posición entre los atacantes ocultos de su tipo en SiegeAggregator
+    int[] siegeIndex = new int[INITIAL_CAPACITY];
+    // Daño extra recibido (ARMOR_SHRED): 0.2 = +20 %
+    float[] damageTakenBonus = new float[INITIAL_CAPACITY];
+    // Primer efecto de estado del slot en StatusEffects (-1 si no tiene)
+    int[] effectHead = new int[INITIAL_CAPACITY];
+    // Ancla del movimiento: pathT(t) = anchorT + (t - anchorTime) * pathRate
+    double[] anchorTime = new double[INITIAL_CAPACITY];
+    float[] anchorT = new float[INITIAL_CAPACITY];
+    float[] pathRate = new float[INITIAL_CAPACITY];
+    // Id de la llegada al castillo vigente (-1 si no hay ninguna programada)
+    long[] arrivalId = new long[INITIAL_CAPACITY];
+    // Posiciones en simTime, calculadas bajo demanda por materializePositions
+    float[] posX = new float[INITIAL_CAPACITY];
+    float[] posY = new float[INITIAL_CAPACITY];
+    float[] posZ = new float[INITIAL_CAPACITY];
+    boolean[] visible = new boolean[INITIAL_CAPACITY];
+    // Proxy de colisión de cada enemigo (null sin PhysicsSpace)
+    PhysicsGhostObject[] proxies = new PhysicsGhostObject[INITIAL_CAPACITY];
+
+    // Muertos desde la última limpieza de EnemyManager, en orden de muerte; así no
+    // hay que recorrer la lista de activos para encontrarlos
+    final List<Enemy> deaths = new ArrayList<>();
+    // Tiempo de simulación acumulado; solo avanza mientras el juego no está en pausa
+    double simTime = 0;
+    private double positionsTime = Double.NaN;
+    private final ArrivalQueue arrivals = new ArrivalQueue();
+    private long nextArrivalId = 0;
+    // Cambia con cada aparición o cambio de velocidad; invalida predicciones de entrada
+    private int movementEpoch = 0;
+    private final Vector3f tempPosition = new Vector3f();
+
+    /**
+     * Registra al enemigo al inicio de path y le asigna un slot.
+     */
+    public int add(Enemy enemy, Path path, int lane, int maxHealth, float speed, int attackDamage) {
+        return add(enemy, path, lane, maxHealth, speed, attackDamage, simTime);
+    }
+
+    /**
+     * Como add, pero el enemigo sale del inicio del camino en spawnTime, que puede caer
+     * dentro del tick en curso: al avanzar el reloj llevará el pathT que le corresponde.
+     */
+    public int add(Enemy enemy, Path path, int lane, int maxHealth, float speed, int attackDamage, double spawnTime) {
+        if (size == enemies.length) {
+            grow();
+        }
+
+        int slot = size++;
+        enemies[slot] = enemy;
+        paths[slot] = path;
+        lanes[slot] = lane;
+        invPathLength[slot] = path.getTotalLength() > 0 ? 1f / path.getTotalLength() : 0;
+        baseSpeed[slot] = speed;
+        currentSpeed[slot] = speed;
+        slowed[slot] = false;
+        health[slot] = maxHealth;
+        this.maxHealth[slot] = maxHealth;
+        damage[slot] = attackDamage;
+        attackingCastle[slot] = false;
+        siegePhase[slot] = 0;
+        siegeIndex[slot] = -1;
+        damageTakenBonus[slot] = 0;
+        effectHead[slot] = -1;
+        visible[slot] = true;
+        proxies[slot] = null;
+
+        anchorTime[slot] = spawnTime;
+        anchorT[slot] = 0;
+        pathRate[slot] = speed * invPathLength[slot];
+
+        path.getPositionAlongPath(0, tempPosition);
+        posX[slot] = tempPosition.x;
+        posY[slot] = tempPosition.y;
+        posZ[slot] = tempPosition.z;
+
+        enemy.bindSimulation(this, slot);
+        scheduleArrival(slot);
+        movementEpoch++;
+        return slot;
+    }
+
+    /**
+     * Elimina el slot moviendo el último enemigo a su posición.
+     */
+    public void remove(int slot) {
+        Enemy removed = enemies[slot];
+        int last = --size;
+
+        if (slot != last) {
+            enemies[slot] = enemies[last];
+            paths[slot] = paths[last];
+            lanes[slot] = lanes[last];
+            invPathLength[slot] = invPathLength[last];
+            baseSpeed[slot] = baseSpeed[last];
+            currentSpeed[slot] = currentSpeed[last];
+            slowed[slot] = slowed[last];
+            health[slot] = health[last];
+            maxHealth[slot] = maxHealth[last];
+            damage[slot] = damage[last];
+            attackingCastle[slot] = attackingCastle[last];
+            siegePhase[slot] = siegePhase[last];
+            siegeIndex[slot] = siegeIndex[last];
+            damageTakenBonus[slot] = damageTakenBonus[last];
+            effectHead[slot] = effectHead[last];
+            anchorTime[slot] = anchorTime[last];
+            anchorT[slot] = anchorT[last];
+            pathRate[slot] = pathRate[last];
+            arrivalId[slot] = arrivalId[last];
+            posX[slot] = posX[last];
+            posY[slot] = posY[last];
+            posZ[slot] = posZ[last];
+            visible[slot] = visible[last];
+            proxies[slot] = proxies[last];
+            enemies[slot].setSlot(slot);
+        }
+
+        enemies[last] = null;
+        paths[last] = null;
+        proxies[last] = null;
+        removed.unbindSimulation();
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            enemies[i].unbindSimulation();
+            enemies[i] = null;
+            paths[i] = null;
+            proxies[i] = null;
+        }
+        size = 0;
+        deaths.clear();
+        arrivals.clear();
+        simTime = 0;
+        positionsTime = Double.NaN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Avanza el reloj de simulación. No toca a ningún enemigo.
+     */
+    void advanceTime(float dt) {
+        simTime += dt;
+    }
+
+    public double getSimTime() {
+        return simTime;
+    }
+
+    public int getMovementEpoch() {
+        return movementEpoch;
+    }
+
+    /**
+     * Segundos hasta que algún enemigo vivo entre en uno de los tramos de laneCoverage
+     * (un array de pares [inicio, fin] de t por carril). 0 si ya hay alguno dentro,
+     * infinito si ninguno va a entrar con las velocidades actuales.
+     */
+    public float predictNextEntryDelay(float[][] laneCoverage) {
+        float best = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            if (health[i] <= 0) continue;
+
+            float[] intervals = laneCoverage[lanes[i]];
+            float t = getPathT(i);
+            for (int k = 0; k < intervals.length; k += 2) {
+                if (t > intervals[k + 1]) continue;
+                if (t >= intervals[k]) return 0f;
+                if (pathRate[i] > 0) {
+                    best = Math.min(best, (intervals[k] - t) / pathRate[i]);
+                }
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Siguiente slot cuya llegada al castillo ya ha vencido, o -1 si no queda ninguno.
+     * Las entradas obsoletas (enemigo eliminado o velocidad cambiada) se descartan.
+     */
+    int pollDueArrival() {
+        while (!arrivals.isEmpty() && arrivals.peekTime() <= simTime) {
+            Enemy enemy = arrivals.peekEnemy();
+            long id = arrivals.peekId();
+            arrivals.pop();
+
+            int slot = enemy.getSlot();
+            if (slot >= 0 && enemies[slot] == enemy && arrivalId[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fija al enemigo al final del camino en estado de ataque, con su posición final
+     * ya en posX/posY/posZ.
+     */
+    void markArrived(int slot) {
+        anchorTime[slot] = simTime;
+        anchorT[slot] = 1f;
+        pathRate[slot] = 0;
+        arrivalId[slot] = -1;
+        attackingCastle[slot] = true;
+
+        paths[slot].getPositionAlongPath(1f, tempPosition);
+        posX[slot] = tempPosition.x;
+        posY[slot] = tempPosition.y;
+        posZ[slot] = tempPosition.z;
+    }
+
+    public float getPathT(int slot) {
+        return getPathTAt(slot, simTime);
+    }
+
+    /**
+     * Progreso (0..1) del slot en el instante time, según su ancla actual.
+     */
+    public float getPathTAt(int slot, double time) {
+        float t = anchorT[slot] + (float) (time - anchorTime[slot]) * pathRate[slot];
+        return t < 1f ? Math.max(t, 0f) : 1f;
+    }
+
+    public int getHealth(int slot) {
+        return health[slot];
+    }
+
+    public int getMaxHealth(int slot) {
+        return maxHealth[slot];
+    }
+
+    public float getCurrentSpeed(int slot) {
+        return currentSpeed[slot];
+    }
+
+    public boolean isSlowed(int slot) {
+        return slowed[slot];
+    }
+
+    public boolean isAttackingCastle(int slot) {
+        return attackingCastle[slot];
+    }
+
+    /**
+     * Resta amount (más el daño extra por rotura de armadura) a la vida del slot.
+     * @return vida restante
+     */
+    public int applyDamage(int slot, int amount) {
+        float bonus = damageTakenBonus[slot];
+        int before = health[slot];
+        health[slot] -= bonus > 0 ? Math.round(amount * (1f + bonus)) : amount;
+        if (before > 0 && health[slot] <= 0) {
+            deaths.add(enemies[slot]);
+        }
+        return health[slot];
+    }
+
+    public void applySlow(int slot, float slowFactor) {
+        float speed = baseSpeed[slot] * slowFactor;
+        if (!slowed[slot] || currentSpeed[slot] != speed) {
+            slowed[slot] = true;
+            setSpeed(slot, speed);
+        }
+    }
+
+    public void removeSlow(int slot) {
+        if (slowed[slot]) {
+            slowed[slot] = false;
+            setSpeed(slot, baseSpeed[slot]);
+        }
+    }
+
+    /**
+     * Cambia la velocidad a partir de simTime: re-ancla el movimiento en la posición
+     * actual y reprograma la llegada al castillo.
+     */
+    private void setSpeed(int slot, float speed) {
+        currentSpeed[slot] = speed;
+        if (attackingCastle[slot]) return;
+
+        // Un enemigo que aún no ha salido (aparición dentro del tick) conserva su ancla
+        if (anchorTime[slot] < simTime) {
+            anchorT[slot] = getPathT(slot);
+            anchorTime[slot] = simTime;
+        }
+        pathRate[slot] = speed * invPathLength[slot];
+        scheduleArrival(slot);
+        movementEpoch++;
+    }
+
+    private void scheduleArrival(int slot) {
+        if (pathRate[slot] <= 0) {
+            arrivalId[slot] = -1;
+            return;
+        }
+
+        long id = nextArrivalId++;
+        arrivalId[slot] = id;
+        double arrivalTime = anchorTime[slot] + (1f - anchorT[slot]) / pathRate[slot];
+        arrivals.push(arrivalTime, enemies[slot], id);
+    }
+
+    public Vector3f getPosition(int slot, Vector3f store) {
+        return paths[slot].getPositionAlongPath(getPathT(slot), store);
+    }
+
+    /**
+     * Posición del slot en el instante time (por ejemplo, entre dos ticks para el render).
+     */
+    public Vector3f getPositionAt(int slot, double time, Vector3f store) {
+        return paths[slot].getPositionAlongPath(getPathTAt(slot, time), store);
+    }
+
+    /**
+     * Rellena posX/posY/posZ con las posiciones en simTime. Solo recalcula
+     * una vez por instante de simulación, y solo si alguien las necesita.
+     */
+    void materializePositions() {
+        if (positionsTime == simTime) return;
+
+        for (int i = 0; i < size; i++) {
+            // Los atacantes del castillo ya no se mueven: su posición se fijó al llegar
+            if (attackingCastle[i]) continue;
+
+            paths[i].getPositionAlongPath(getPathT(i), tempPosition);
+            posX[i] = tempPosition.x;
+            posY[i] = tempPosition.y;
+            posZ[i] = tempPosition.z;
+        }
+        positionsTime = simTime;
+    }
+
+    private void grow() {
+        int capacity = enemies.length * 2;
+        enemies = Arrays.copyOf(enemies, capacity);
+        paths = Arrays.copyOf(paths, capacity);
+        lanes = Arrays.copyOf(lanes, capacity);
+        invPathLength = Arrays.copyOf(invPathLength, capacity);
+        baseSpeed = Arrays.copyOf(baseSpeed, capacity);
+        currentSpeed = Arrays.copyOf(currentSpeed, capacity);
+        slowed = Arrays.copyOf(slowed, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        attackingCastle = Arrays.copyOf(attackingCastle, capacity);
+        siegePhase = Arrays.copyOf(siegePhase, capacity);
+        siegeIndex = Arrays.copyOf(siegeIndex, capacity);
+        damageTakenBonus = Arrays.copyOf(damageTakenBonus, capacity);
+        effectHead = Arrays.copyOf(effectHead, capacity);
+        anchorTime = Arrays.copyOf(anchorTime, capacity);
+        anchorT = Arrays.copyOf(anchorT, capacity);
+        pathRate = Arrays.copyOf(pathRate, capacity);
+        arrivalId = Arrays.copyOf(arrivalId, capacity);
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        visible = Arrays.copyOf(visible, capacity);
+        proxies = Arrays.copyOf(proxies, capacity);
+    }
+}
@@ -0,0 +1,149 @@
+package mygame.systems;
+
+import java.util.Arrays;
+import mygame.entities.Enemy;
+
+/**
+ * Enemigos de un carril ordenados por progreso en el camino, de más avanzado a menos.
+ * El orden se repara con inserción una vez por instante de simulación: entre ticks
+ * casi no cambia (solo adelantamientos por ralentización), así que cuesta O(n).
+ * Las consultas por tramo de pathT son búsquedas binarias sobre keys.
+ *
+ * Los que atacan el castillo se quedan en pathT = 1 para siempre, así que forman un
+ * prefijo fijo del orden que refresh ya no recalcula (en el modo infinito pueden ser
+ * decenas de miles).
+ *
+ * Las bajas no se quitan una a una (cada una desplazaría el array): se marcan y
+ * compact() las elimina todas en una pasada al final del tick.
+ */
+class LaneIndex {
+    private static final int INITIAL_CAPACITY = 32;
+
+    Enemy[] order = new Enemy[INITIAL_CAPACITY];
+    // pathT de cada entrada en el instante sortedTime (descendente)
+    float[] keys = new float[INITIAL_CAPACITY];
+    int size = 0;
+    // Entradas [0, frozen) atacan el castillo: clave 1 y posición que no cambia
+    private int frozen = 0;
+    // Bajas marcadas desde el último compact()
+    private int removedCount = 0;
+    private double sortedTime = Double.NaN;
+
+    /**
+     * Los enemigos nuevos salen en t = 0, así que van al final.
+     */
+    void add(Enemy enemy) {
+        if (size == order.length) {
+            order = Arrays.copyOf(order, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        order[size] = enemy;
+        keys[size] = 0f;
+        size++;
+    }
+
+    /**
+     * Marca la baja de un enemigo muerto; su entrada sigue hasta el próximo compact().
+     */
+    void markRemoved() {
+        removedCount++;
+    }
+
+    /**
+     * Quita de una pasada las entradas de los enemigos muertos. Debe llamarse antes de
+     * que vuelvan al pool, cuando isAlive() todavía los distingue.
+     */
+    void compact() {
+        if (removedCount == 0) return;
+        removedCount = 0;
+
+        int write = 0;
+        int frozenKept = 0;
+        for (int i = 0; i < size; i++) {
+            Enemy enemy = order[i];
+            if (!enemy.isAlive()) continue;
+            if (i < frozen) {
+                frozenKept++;
+            }
+            order[write] = enemy;
+            keys[write] = keys[i];
+            write++;
+        }
+        Arrays.fill(order, write, size, null);
+        size = write;
+        frozen = frozenKept;
+    }
+
+    void clear() {
+        Arrays.fill(order, 0, size, null);
+        size = 0;
+        frozen = 0;
+        removedCount = 0;
+        sortedTime = Double.NaN;
+    }
+
+    /**
+     * Actualiza las claves al simTime actual y repara el orden por inserción.
+     */
+    void refresh(EnemySimStore store) {
+        compact();
+        if (sortedTime == store.simTime) return;
+        sortedTime = store.simTime;
+
+        for (int i = frozen; i < size; i++) {
+            keys[i] = store.getPathT(order[i].getSlot());
+        }
+        // Ninguna clave supera 1, así que nada entra en el prefijo fijo
+        for (int i = frozen + 1; i < size; i++) {
+            float key = keys[i];
+            if (keys[i - 1] >= key) continue;
+
+            Enemy enemy = order[i];
+            int j = i - 1;
+            while (j >= frozen && keys[j] < key) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            order[j + 1] = enemy;
+        }
+        while (frozen < size && store.attackingCastle[order[frozen].getSlot()]) {
+            frozen++;
+        }
+    }
+
+    /**
+     * Primera posición con clave <= t (el más avanzado que no pasa de t).
+     */
+    int firstAtOrBelow(float t) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] > t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Última posición con clave >= t (el más retrasado que ya alcanzó t), o -1.
+     */
+    int lastAtOrAbove(float t) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] >= t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+}
@@ -1,18 +1,74 @@
 package mygame.systems;
 
 import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.renderer.Camera;
+import com.jme3.math.FastMath;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import com.jme3.scene.shape.Line;
 import com.jme3.material.Material;
 import com.jme3.scene.Geometry;
 import com.jme3.math.ColorRGBA;
+import java.util.Arrays;
 
 public class Path {
+    private static final float CATMULL_ROM_TENSION = 0.5f;
+
     private final Vector3f[] waypoints;
+    // Polilínea que siguen los enemigos (igual a waypoints si el camino es recto)
+    private final Vector3f[] samples;
+    // cumulativeLengths[i] = distancia desde el inicio hasta samples[i]
+    private final float[] cumulativeLengths;
+    private final float totalLength;
 
     public Path(Vector3f[] waypoints) {
+        this(waypoints, waypoints);
+    }
+
+    private Path(Vector3f[] waypoints, Vector3f[] samples) {
         this.waypoints = waypoints;
+        this.samples = samples;
+        this.cumulativeLengths = new float[samples.length];
+
+        float length = 0;
+        for (int i = 1; i < samples.length; i++) {
+            length += samples[i - 1].distance(samples[i]);
+            cumulativeLengths[i] = length;
+        }
+        this.totalLength = length;
+    }
+
+    /**
+     * Crea un camino suave Catmull-Rom que pasa por los puntos de control.
+     * La curva se muestrea una sola vez en la tabla de longitudes, así que
+     * el coste por frame no depende del número de puntos ni de muestras.
+     */
+    public static Path catmullRom(Vector3f[] controlPoints, int samplesPerSegment) {
+        if (controlPoints.length < 3 || samplesPerSegment < 1) {
+            return new Path(controlPoints);
+        }
+
+        int segments = controlPoints.length - 1;
+        Vector3f[] sampled = new Vector3f[segments * samplesPerSegment + 1];
+        int index = 0;
+
+        for (int i = 0; i < segments; i++) {
+            // Los extremos se duplican para que la curva empiece y termine en ellos
+            Vector3f p0 = controlPoints[Math.max(i - 1, 0)];
+            Vector3f p1 = controlPoints[i];
+            Vector3f p2 = controlPoints[i + 1];
+            Vector3f p3 = controlPoints[Math.min(i + 2, segments)];
+
+            for (int s = 0; s < samplesPerSegment; s++) {
+                float u = (float) s / samplesPerSegment;
+                sampled[index++] = FastMath.interpolateCatmullRom(
+                    u, CATMULL_ROM_TENSION, p0, p1, p2, p3, new Vector3f());
+            }
+        }
+        sampled[index] = controlPoints[segments].clone();
+
+        return new Path(controlPoints, sampled);
     }
 
     public Vector3f[] getWaypoints() {
@@ -23,8 +79,8 @@ public class Path {
         Material mat = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
         mat.setColor("Color", ColorRGBA.Green);
 
-        for (int i = 0; i < waypoints.length - 1; i++) {
-            Line line = new Line(waypoints[i], waypoints[i + 1]);
+        for (int i = 0; i < samples.length - 1; i++) {
+            Line line = new Line(samples[i], samples[i + 1]);
             Geometry lineGeo = new Geometry("PathLine_" + i, line);
             lineGeo.setMaterial(mat);
             rootNode.attachChild(lineGeo);
@@ -32,35 +88,180 @@ public class Path {
     }
 
     public float getTotalLength() {
-        float length = 0;
-        for (int i = 0; i < waypoints.length - 1; i++) {
-            length += waypoints[i].distance(waypoints[i + 1]);
-        }
-        return length;
+        return totalLength;
     }
 
     public Vector3f getPositionAlongPath(float t) {
-        if (waypoints.length == 0) return Vector3f.ZERO;
-        if (waypoints.length == 1) return waypoints[0];
+        return getPositionAlongPath(t, new Vector3f());
+    }
+
+    /**
+     * Escribe en store la posición a la fracción t (0..1) del recorrido.
+     * Búsqueda binaria sobre la tabla de longitudes acumuladas, sin crear objetos.
+     */
+    public Vector3f getPositionAlongPath(float t, Vector3f store) {
+        if (samples.length == 0) return store.set(Vector3f.ZERO);
+        if (samples.length == 1 || t <= 0 || totalLength <= 0) return store.set(samples[0]);
+        if (t >= 1) return store.set(samples[samples.length - 1]);
 
-        float totalLength = getTotalLength();
         float targetLength = t * totalLength;
-        float accumulatedLength = 0;
+        int segment = findSegment(targetLength);
+
+        Vector3f start = samples[segment];
+        Vector3f end = samples[segment + 1];
+        float segmentLength = cumulativeLengths[segment + 1] - cumulativeLengths[segment];
+        if (segmentLength <= 0) {
+            return store.set(start);
+        }
+
+        float segmentT = (targetLength - cumulativeLengths[segment]) / segmentLength;
+        return store.set(start).interpolateLocal(end, segmentT);
+    }
+
+    /**
+     * Tramos del camino que quedan a distancia menor que range de center, como
+     * pares [inicio, fin] de t (0..1) ordenados y sin solapes: {t0, t1, t2, t3, ...}.
+     * Intersección exacta esfera-segmento sobre la polilínea que siguen los enemigos.
+     */
+    public float[] computeCoverage(Vector3f center, float range) {
+        float[] intervals = new float[2 * getSegmentCount()];
+        return Arrays.copyOf(intervals, computeCoverage(center, range, intervals));
+    }
+
+    /**
+     * Como computeCoverage, pero escribe los tramos en store (2 * getSegmentCount()
+     * floats bastan) y devuelve cuántos floats ha usado. No reserva memoria.
+     */
+    public int computeCoverage(Vector3f center, float range, float[] store) {
+        int count = 0;
+        if (samples.length < 2 || totalLength <= 0) {
+            return 0;
+        }
+
+        float rangeSq = range * range;
+        for (int i = 0; i < samples.length - 1; i++) {
+            Vector3f a = samples[i];
+            Vector3f b = samples[i + 1];
+            float dx = b.x - a.x, dy = b.y - a.y, dz = b.z - a.z;
+            float ox = a.x - center.x, oy = a.y - center.y, oz = a.z - center.z;
+
+            // |a + s(b - a) - center|^2 = range^2  ->  qa s^2 + qb s + qc = 0
+            float qa = dx * dx + dy * dy + dz * dz;
+            float qb = 2f * (dx * ox + dy * oy + dz * oz);
+            float qc = ox * ox + oy * oy + oz * oz - rangeSq;
+            if (qa <= 0) continue;
+
+            float disc = qb * qb - 4f * qa * qc;
+            if (disc < 0) continue;
+
+            float root = (float) Math.sqrt(disc);
+            float s0 = Math.max((-qb - root) / (2f * qa), 0f);
+            float s1 = Math.min((-qb + root) / (2f * qa), 1f);
+            if (s0 >= s1) continue;
+
+            float segmentLength = cumulativeLengths[i + 1] - cumulativeLengths[i];
+            float start = (cumulativeLengths[i] + s0 * segmentLength) / totalLength;
+            float end = (cumulativeLengths[i] + s1 * segmentLength) / totalLength;
+
+            // Unir con el tramo anterior si continúa en el mismo punto
+            if (count > 0 && start <= store[count - 1] + 1e-5f) {
+                store[count - 1] = Math.max(store[count - 1], end);
+                continue;
+            }
+            store[count++] = start;
+            store[count++] = end;
+        }
+        return count;
+    }
+
+    /**
+     * Tramos de t cuyos segmentos pueden verse desde camera con objetos de radio
+     * radius encima: cada segmento se prueba con la esfera que lo envuelve, así que
+     * cualquier punto del tramo que se vea cae dentro. Escribe pares [inicio, fin] en
+     * store (2 * getSegmentCount() floats) y devuelve cuántos floats ha usado.
+     */
+    public int computeVisibleSpans(Camera camera, float radius, BoundingSphere scratch, float[] store) {
+        int count = 0;
+        if (samples.length < 2 || totalLength <= 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < samples.length - 1; i++) {
+            float segmentLength = cumulativeLengths[i + 1] - cumulativeLengths[i];
+            scratch.getCenter().set(samples[i]).addLocal(samples[i + 1]).multLocal(0.5f);
+            scratch.setRadius(segmentLength * 0.5f + radius);
+            // contains() se salta los planos marcados en planeState por pruebas anteriores
+            camera.setPlaneState(0);
+            if (camera.contains(scratch) == Camera.FrustumIntersect.Outside) continue;
 
-        for (int i = 0; i < waypoints.length - 1; i++) {
-            Vector3f start = waypoints[i];
-            Vector3f end = waypoints[i + 1];
-            float segmentLength = start.distance(end);
+            float start = cumulativeLengths[i] / totalLength;
+            float end = cumulativeLengths[i + 1] / totalLength;
+            if (count > 0 && store[count - 1] == start) {
+                store[count - 1] = end;
+                continue;
+            }
+            store[count++] = start;
+            store[count++] = end;
+        }
+        return count;
+    }
+
+    public int getSegmentCount() {
+        return Math.max(samples.length - 1, 0);
+    }
+
+    /**
+     * true si t cae dentro de alguno de los tramos de intervals (búsqueda binaria).
+     */
+    public static boolean coverageContains(float[] intervals, float t) {
+        return coverageContains(intervals, intervals.length, t);
+    }
 
-            if (accumulatedLength + segmentLength >= targetLength) {
-                float segmentT = (targetLength - accumulatedLength) / segmentLength;
-                // Corregido a interpolateLocal para no crear objetos nuevos
-                return new Vector3f(start).interpolateLocal(end, segmentT);
+    /**
+     * Como coverageContains, con los tramos en los primeros length floats de intervals.
+     */
+    public static boolean coverageContains(float[] intervals, int length, float t) {
+        int low = 0;
+        int high = length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (t < intervals[2 * mid]) {
+                high = mid - 1;
+            } else if (t > intervals[2 * mid + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
             }
+        }
+        return false;
+    }
 
-            accumulatedLength += segmentLength;
+    /**
+     * Fracción (0..1) del camino cubierta por intervals.
+     */
+    public static float coverageFraction(float[] intervals) {
+        float covered = 0;
+        for (int k = 0; k < intervals.length; k += 2) {
+            covered += intervals[k + 1] - intervals[k];
         }
+        return covered;
+    }
 
-        return waypoints[waypoints.length - 1];
+    /**
+     * Índice i del segmento tal que cumulativeLengths[i] <= length < cumulativeLengths[i + 1].
+     */
+    private int findSegment(float length) {
+        int low = 0;
+        int high = cumulativeLengths.length - 2;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (cumulativeLengths[mid] <= length) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
     }
 }
@@ -0,0 +1,233 @@
+package mygame.systems;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.material.Material;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.util.BufferUtils;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import mygame.entities.Enemy;
+import mygame.utils.Constants;
+
+/**
+ * Proyectiles teledirigidos de las torres de ataque. Los proyectiles vivos ocupan
+ * slots densos en arrays preasignados (como EnemySimStore) y se dibujan todos con
+ * una sola malla de puntos cuyo buffer se reescribe cada frame, así que disparar
+ * no crea objetos ni geometrías.
+ *
+ * La malla tiene siempre un vértice por slot del pool: cambiar el número de vértices
+ * obliga a Mesh.updateCounts, que reserva memoria en cada llamada. Los slots libres
+ * repiten la posición del primer proyectil y se dibujan encima de él. El pool sale
+ * de PROJECTILE_POOL_SIZE, calculado para el peor caso de torres, cadencia y vuelo;
+ * si aun así se llena crece en silencio y getGrowCount lo cuenta para el resumen.
+ */
+public class ProjectileSystem {
+    private int count = 0;
+    private float[] posX;
+    private float[] posY;
+    private float[] posZ;
+    // Posición al empezar el último tick, para interpolar el render entre ticks
+    private float[] prevX;
+    private float[] prevY;
+    private float[] prevZ;
+    private Enemy[] targets;
+    private int[] damages;
+    private int peakCount = 0;
+    private int growCount = 0;
+
+    // Render (null en modo headless)
+    private final Node parent;
+    private Geometry geometry;
+    private Mesh mesh;
+    private FloatBuffer positionBuffer;
+
+    public ProjectileSystem(AssetManager assetManager, Node parent) {
+        int capacity = Constants.PROJECTILE_POOL_SIZE;
+        posX = new float[capacity];
+        posY = new float[capacity];
+        posZ = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        prevZ = new float[capacity];
+        targets = new Enemy[capacity];
+        damages = new int[capacity];
+
+        this.parent = parent;
+        if (assetManager != null && parent != null) {
+            createBatch(assetManager, capacity);
+        }
+    }
+
+    private void createBatch(AssetManager assetManager, int capacity) {
+        mesh = new Mesh();
+        mesh.setMode(Mesh.Mode.Points);
+        setPositionBuffer(capacity);
+
+        Material material = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+        material.setColor("Color", new ColorRGBA(1.0f, 0.6f, 0.1f, 1.0f));
+        material.setFloat("PointSize", Constants.PROJECTILE_POINT_SIZE);
+
+        geometry = new Geometry("Projectiles", mesh);
+        geometry.setMaterial(material);
+        // Las posiciones cambian cada frame: sin bound; syncScene la muestra cuando hay proyectiles
+        geometry.setCullHint(Spatial.CullHint.Always);
+        parent.attachChild(geometry);
+    }
+
+    /**
+     * Dispara un proyectil desde from (base de la torre) hacia target.
+     */
+    public void launch(Vector3f from, Enemy target, int damage) {
+        if (count == posX.length) {
+            grow();
+        }
+
+        int i = count++;
+        if (count > peakCount) {
+            peakCount = count;
+        }
+        posX[i] = from.x;
+        posY[i] = from.y + Constants.PROJECTILE_LAUNCH_HEIGHT;
+        posZ[i] = from.z;
+        prevX[i] = posX[i];
+        prevY[i] = posY[i];
+        prevZ[i] = posZ[i];
+        targets[i] = target;
+        damages[i] = damage;
+    }
+
+    /**
+     * Mueve los proyectiles hacia la posición actual de su objetivo y aplica el daño
+     * al llegar. Si el objetivo muere antes, el proyectil desaparece sin efecto.
+     */
+    public void update(float dt) {
+        float maxStep = Constants.PROJECTILE_SPEED * dt;
+        float maxStepSq = maxStep * maxStep;
+
+        int i = 0;
+        while (i < count) {
+            Enemy target = targets[i];
+            if (!target.isAlive() || target.getSlot() < 0) {
+                remove(i);
+                continue;
+            }
+
+            Vector3f aim = target.getPosition();
+            float dx = aim.x - posX[i];
+            float dy = aim.y + Constants.PROJECTILE_TARGET_HEIGHT - posY[i];
+            float dz = aim.z - posZ[i];
+            float distSq = dx * dx + dy * dy + dz * dz;
+            if (distSq <= maxStepSq) {
+                target.takeDamage(damages[i]);
+                remove(i);
+                continue;
+            }
+
+            float scale = maxStep / (float) Math.sqrt(distSq);
+            prevX[i] = posX[i];
+            prevY[i] = posY[i];
+            prevZ[i] = posZ[i];
+            posX[i] += dx * scale;
+            posY[i] += dy * scale;
+            posZ[i] += dz * scale;
+            i++;
+        }
+    }
+
+    /**
+     * Copia las posiciones al buffer de la malla compartida. Se llama una vez por frame;
+     * alpha sitúa el render entre los dos últimos ticks, como en EnemyManager.syncScene.
+     */
+    public void syncScene(float alpha) {
+        if (mesh == null) return;
+
+        if (count == 0) {
+            geometry.setCullHint(Spatial.CullHint.Always);
+            return;
+        }
+
+        positionBuffer.clear();
+        for (int i = 0; i < count; i++) {
+            positionBuffer.put(prevX[i] + (posX[i] - prevX[i]) * alpha)
+                .put(prevY[i] + (posY[i] - prevY[i]) * alpha)
+                .put(prevZ[i] + (posZ[i] - prevZ[i]) * alpha);
+        }
+        float firstX = positionBuffer.get(0), firstY = positionBuffer.get(1), firstZ = positionBuffer.get(2);
+        for (int i = count; i < posX.length; i++) {
+            positionBuffer.put(firstX).put(firstY).put(firstZ);
+        }
+        positionBuffer.rewind();
+
+        mesh.getBuffer(VertexBuffer.Type.Position).setUpdateNeeded();
+        geometry.setCullHint(Spatial.CullHint.Never);
+    }
+
+    public int getActiveCount() {
+        return count;
+    }
+
+    public void clear() {
+        Arrays.fill(targets, 0, count, null);
+        count = 0;
+        syncScene(1f);
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        if (i != last) {
+            posX[i] = posX[last];
+            posY[i] = posY[last];
+            posZ[i] = posZ[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            prevZ[i] = prevZ[last];
+            targets[i] = targets[last];
+            damages[i] = damages[last];
+        }
+        targets[last] = null;
+    }
+
+    private void grow() {
+        int capacity = posX.length * 2;
+        growCount++;
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        prevZ = Arrays.copyOf(prevZ, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        damages = Arrays.copyOf(damages, capacity);
+
+        if (mesh != null) {
+            setPositionBuffer(capacity);
+        }
+    }
+
+    public int getCapacity() {
+        return posX.length;
+    }
+
+    /** Máximo de proyectiles en vuelo a la vez desde que se creó el sistema. */
+    public int getPeakCount() {
+        return peakCount;
+    }
+
+    /** Veces que el pool se ha quedado corto y ha duplicado sus arrays (y la malla). */
+    public int getGrowCount() {
+        return growCount;
+    }
+
+    private void setPositionBuffer(int capacity) {
+        positionBuffer = BufferUtils.createFloatBuffer(capacity * 3);
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, positionBuffer);
+        mesh.getBuffer(VertexBuffer.Type.Position).setUsage(VertexBuffer.Usage.Stream);
+        mesh.updateCounts();
+    }
+}
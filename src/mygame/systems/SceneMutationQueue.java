@@ -0,0 +1,122 @@
+package mygame.systems;
+
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Altas y bajas de nodos de enemigos acumuladas durante un tick y aplicadas juntas
+ * al final. Node.detachChild busca el hijo con indexOf y cada detachChildAt desplaza
+ * los hijos que le siguen, así que quitar k hijos uno a uno cuesta O(k·n). Aquí cada
+ * padre se recorre una vez: las bajas se quitan de atrás adelante mientras los
+ * desplazamientos (k·n/2, copias de referencias muy baratas) no superen
+ * REBUILD_MIN_SHIFTS; por encima, su lista de hijos se rehace entera en O(n).
+ *
+ * Una baja y un alta del mismo nodo en el mismo tick se anulan entre sí.
+ */
+class SceneMutationQueue {
+    // Desplazamientos estimados a partir de los que sale más barato rehacer los hijos
+    // (medido: con 40000 hijos compensa desde ~2000 bajas; con 4000, nunca)
+    private static final long REBUILD_MIN_SHIFTS = 1L << 25;
+
+    private final List<Node> attachParents = new ArrayList<>();
+    private final List<Spatial> attachChildren = new ArrayList<>();
+    // Altas todavía vigentes (una baja posterior en el mismo tick las cancela)
+    private final Set<Spatial> pendingAttach = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Spatial> pendingDetach = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Node> dirtyParents = new ArrayList<>();
+    // Bajas pedidas en cada padre de dirtyParents (mismo índice)
+    private int[] detachCounts = new int[4];
+    private final List<Spatial> survivors = new ArrayList<>();
+
+    void attach(Node parent, Spatial child) {
+        if (pendingDetach.remove(child) && child.getParent() == parent) return;
+        if (pendingAttach.add(child)) {
+            attachParents.add(parent);
+            attachChildren.add(child);
+        }
+    }
+
+    void detach(Spatial child) {
+        if (pendingAttach.remove(child)) return;
+
+        Node parent = child.getParent();
+        if (parent == null || !pendingDetach.add(child)) return;
+        int p = dirtyParents.indexOf(parent);
+        if (p < 0) {
+            p = dirtyParents.size();
+            dirtyParents.add(parent);
+            if (p == detachCounts.length) {
+                detachCounts = Arrays.copyOf(detachCounts, p * 2);
+            }
+            detachCounts[p] = 0;
+        }
+        detachCounts[p]++;
+    }
+
+    /**
+     * true si child está en escena al aplicar la cola (ya colgado o con alta pendiente).
+     */
+    boolean isInScene(Spatial child) {
+        return pendingAttach.contains(child) || (child.getParent() != null && !pendingDetach.contains(child));
+    }
+
+    /**
+     * Aplica primero las bajas, una pasada por padre, y luego las altas.
+     */
+    void apply() {
+        for (int p = 0; p < dirtyParents.size() && !pendingDetach.isEmpty(); p++) {
+            Node parent = dirtyParents.get(p);
+            if ((long) detachCounts[p] * parent.getQuantity() / 2 >= REBUILD_MIN_SHIFTS) {
+                rebuildChildren(parent);
+                continue;
+            }
+            for (int i = parent.getQuantity() - 1; i >= 0 && !pendingDetach.isEmpty(); i--) {
+                if (pendingDetach.remove(parent.getChild(i))) {
+                    parent.detachChildAt(i);
+                }
+            }
+        }
+
+        for (int i = 0; i < attachChildren.size(); i++) {
+            Spatial child = attachChildren.get(i);
+            if (pendingAttach.contains(child)) {
+                attachParents.get(i).attachChild(child);
+            }
+        }
+
+        clear();
+    }
+
+    /**
+     * Quita todos los hijos (desde el final, sin desplazar a nadie) y vuelve a colgar
+     * en su orden los que no tenían baja pendiente.
+     */
+    private void rebuildChildren(Node parent) {
+        List<Spatial> children = parent.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            Spatial child = children.get(i);
+            if (!pendingDetach.remove(child)) {
+                survivors.add(child);
+            }
+        }
+        parent.detachAllChildren();
+        for (int i = 0; i < survivors.size(); i++) {
+            parent.attachChild(survivors.get(i));
+        }
+        survivors.clear();
+    }
+
+    void clear() {
+        attachParents.clear();
+        attachChildren.clear();
+        pendingAttach.clear();
+        pendingDetach.clear();
+        dirtyParents.clear();
+    }
+}
@@ -0,0 +1,183 @@
+package mygame.systems;
+
+import com.jme3.scene.Node;
+import java.util.Arrays;
+import mygame.entities.Enemy;
+import mygame.entities.Enemy.EnemyType;
+import mygame.utils.Constants;
+
+/**
+ * Asedio al castillo agregado por tipo de enemigo. Los enemigos que llegan al final
+ * del camino quedan congelados en EnemySimStore (las torres pueden seguir matándolos)
+ * pero sin nodo en escena, animación, proxy de física ni temporizador propio: aquí
+ * solo se guarda cuántos hay de cada tipo y cuánto daño suman por intervalo.
+ * Cada atacante golpea en el tick en que llega y después una vez por intervalo. El
+ * intervalo se reparte en fases de tiempo simulado (una por tick nominal, como la rueda
+ * de StatusEffects) y el daño de cada atacante se guarda en la fase en que golpea: cada
+ * update entrega las fases transcurridas sin recorrer a los atacantes, así que el daño
+ * por segundo no depende de la frecuencia de ticks.
+ * Un representante por tipo se queda visible en la puerta del castillo.
+ * Los nodos entran y salen de escena a través de la cola de mutaciones del tick.
+ */
+public class SiegeAggregator {
+    // Margen para que la acumulación en float de simTime no retrase una fase
+    private static final double PHASE_EPSILON = 1e-6;
+    private static final int INITIAL_HIDDEN_CAPACITY = 16;
+
+    private final SceneMutationQueue sceneMutations;
+    private final Node[] laneNodes;
+    private final EnemySimStore store;
+    private final double phaseSeconds;
+    // Daño de los atacantes según la fase del intervalo en que golpean
+    private final int[] damageByPhase;
+    // Última fase (absoluta) entregada; la fase p vence en p * phaseSeconds
+    private long deliveredPhase = 0;
+    // Golpes de llegada cuya fase ya se entregó (ticks más cortos que una fase)
+    private int arrivalDamage = 0;
+    private final int[] counts = new int[EnemyType.values().length];
+    // Daño por intervalo sumado de los atacantes de cada tipo
+    private final int[] damagePerInterval = new int[EnemyType.values().length];
+    private final Enemy[] representatives = new Enemy[EnemyType.values().length];
+    // Atacantes ocultos de cada tipo, candidatos a sustituir al representante; su
+    // posición aquí se guarda en EnemySimStore.siegeIndex para quitarlos en O(1)
+    private final Enemy[][] hidden = new Enemy[EnemyType.values().length][];
+    private final int[] hiddenCounts = new int[EnemyType.values().length];
+    private int totalDamagePerInterval = 0;
+    private int totalCount = 0;
+
+    SiegeAggregator(SceneMutationQueue sceneMutations, Node[] laneNodes, EnemySimStore store, float attackInterval) {
+        this.sceneMutations = sceneMutations;
+        this.laneNodes = laneNodes;
+        this.store = store;
+        int phaseCount = Math.max(1, Math.round(attackInterval * Constants.SIMULATION_TICK_RATE));
+        this.phaseSeconds = (double) attackInterval / phaseCount;
+        this.damageByPhase = new int[phaseCount];
+        for (int i = 0; i < hidden.length; i++) {
+            hidden[i] = new Enemy[INITIAL_HIDDEN_CAPACITY];
+        }
+    }
+
+    /**
+     * Suma enemy al asedio; su primer golpe sale en el update de este mismo tick.
+     * Si su tipo ya tiene representante, su nodo sale de la escena.
+     */
+    void addAttacker(Enemy enemy, int damage) {
+        int type = enemy.getType().ordinal();
+        long phase = phaseAt(store.simTime);
+        store.siegePhase[enemy.getSlot()] = (int) (phase % damageByPhase.length);
+        damageByPhase[store.siegePhase[enemy.getSlot()]] += damage;
+        if (phase <= deliveredPhase) {
+            arrivalDamage += damage;
+        }
+        counts[type]++;
+        damagePerInterval[type] += damage;
+        totalDamagePerInterval += damage;
+        totalCount++;
+
+        if (representatives[type] == null) {
+            representatives[type] = enemy;
+            enemy.onReachedCastle();
+        } else {
+            sceneMutations.detach(enemy.getNode());
+            addHidden(type, enemy);
+        }
+    }
+
+    /**
+     * Quita enemy del asedio (muerto o liberado). Si era el representante de su tipo,
+     * otro atacante oculto ocupa su lugar.
+     */
+    void removeAttacker(Enemy enemy, int damage) {
+        int type = enemy.getType().ordinal();
+        damageByPhase[store.siegePhase[enemy.getSlot()]] -= damage;
+        counts[type]--;
+        damagePerInterval[type] -= damage;
+        totalDamagePerInterval -= damage;
+        totalCount--;
+
+        if (representatives[type] != enemy) {
+            removeHidden(type, store.siegeIndex[enemy.getSlot()]);
+            return;
+        }
+
+        Enemy next = hiddenCounts[type] > 0 ? removeHidden(type, hiddenCounts[type] - 1) : null;
+        representatives[type] = next;
+        if (next != null) {
+            next.syncTransform(enemy.getNode().getLocalTranslation());
+            next.setVisible(true);
+            sceneMutations.attach(laneNodes[store.lanes[next.getSlot()]], next.getNode());
+            next.onReachedCastle();
+        }
+    }
+
+    private void addHidden(int type, Enemy enemy) {
+        if (hiddenCounts[type] == hidden[type].length) {
+            hidden[type] = Arrays.copyOf(hidden[type], hiddenCounts[type] * 2);
+        }
+        int index = hiddenCounts[type]++;
+        hidden[type][index] = enemy;
+        store.siegeIndex[enemy.getSlot()] = index;
+    }
+
+    /**
+     * Quita el oculto de la posición index moviendo el último a su hueco.
+     */
+    private Enemy removeHidden(int type, int index) {
+        Enemy[] list = hidden[type];
+        Enemy removed = list[index];
+        int last = --hiddenCounts[type];
+        if (index != last) {
+            list[index] = list[last];
+            store.siegeIndex[list[index].getSlot()] = index;
+        }
+        list[last] = null;
+        return removed;
+    }
+
+    /**
+     * Avanza el asedio hasta el simTime del store.
+     * @return daño de los atacantes que golpean desde el último update (los recién
+     *         llegados y los que llegaron un número entero de intervalos antes)
+     */
+    int update() {
+        int damage = arrivalDamage;
+        arrivalDamage = 0;
+        long targetPhase = phaseAt(store.simTime);
+        while (deliveredPhase < targetPhase) {
+            deliveredPhase++;
+            damage += damageByPhase[(int) (deliveredPhase % damageByPhase.length)];
+        }
+        return damage;
+    }
+
+    private long phaseAt(double time) {
+        return (long) Math.floor(time / phaseSeconds + PHASE_EPSILON);
+    }
+
+    void clear() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+            damagePerInterval[i] = 0;
+            representatives[i] = null;
+            Arrays.fill(hidden[i], 0, hiddenCounts[i], null);
+            hiddenCounts[i] = 0;
+        }
+        Arrays.fill(damageByPhase, 0);
+        deliveredPhase = phaseAt(store.simTime);
+        arrivalDamage = 0;
+        totalDamagePerInterval = 0;
+        totalCount = 0;
+    }
+
+    public int getAttackerCount(EnemyType type) {
+        return counts[type.ordinal()];
+    }
+
+    public int getTotalAttackers() {
+        return totalCount;
+    }
+
+    public int getDamagePerInterval() {
+        return totalDamagePerInterval;
+    }
+}
@@ -0,0 +1,168 @@
+package mygame.systems;
+
+import com.jme3.math.Vector3f;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Rejilla hash uniforme para consultas espaciales sobre el plano XZ.
+ * Se reconstruye cada frame con las posiciones actuales y permite a las
+ * torres consultar solo las celdas cercanas en vez de recorrer todos los enemigos.
+ */
+public class SpatialHashGrid<T> {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final float invCellSize;
+    private final int bucketMask;
+    private final int[] bucketHeads;
+
+    // Entradas almacenadas como listas enlazadas dentro de arrays para no crear objetos
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] cellXs = new int[INITIAL_CAPACITY];
+    private int[] cellZs = new int[INITIAL_CAPACITY];
+    private float[] xs = new float[INITIAL_CAPACITY];
+    private float[] ys = new float[INITIAL_CAPACITY];
+    private float[] zs = new float[INITIAL_CAPACITY];
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * @param cellSize tamaño de cada celda en unidades de mundo
+     * @param bucketCount número de cubetas (se redondea a potencia de dos)
+     */
+    public SpatialHashGrid(float cellSize, int bucketCount) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize debe ser positivo");
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.invCellSize = 1f / cellSize;
+        this.bucketMask = buckets - 1;
+        this.bucketHeads = new int[buckets];
+        Arrays.fill(bucketHeads, -1);
+    }
+
+    public void clear() {
+        Arrays.fill(bucketHeads, -1);
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+
+    public void insert(T item, Vector3f position) {
+        insert(item, position.x, position.y, position.z);
+    }
+
+    public void insert(T item, float x, float y, float z) {
+        if (size == items.length) {
+            grow();
+        }
+
+        int cellX = cellCoord(x);
+        int cellZ = cellCoord(z);
+        int bucket = bucketIndex(cellX, cellZ);
+
+        items[size] = item;
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        cellXs[size] = cellX;
+        cellZs[size] = cellZ;
+        next[size] = bucketHeads[bucket];
+        bucketHeads[bucket] = size;
+        size++;
+    }
+
+    /**
+     * Devuelve el elemento más cercano a center dentro de radius que cumpla
+     * el filtro (null para aceptar todos), o null si no hay ninguno.
+     */
+    @SuppressWarnings("unchecked")
+    public T findNearest(Vector3f center, float radius, Predicate<? super T> filter) {
+        float radiusSq = radius * radius;
+        float bestDistSq = Float.MAX_VALUE;
+        int best = -1;
+
+        int minX = cellCoord(center.x - radius);
+        int maxX = cellCoord(center.x + radius);
+        int minZ = cellCoord(center.z - radius);
+        int maxZ = cellCoord(center.z + radius);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                for (int i = bucketHeads[bucketIndex(cx, cz)]; i != -1; i = next[i]) {
+                    // Varias celdas pueden compartir cubeta; filtrar por celda real
+                    if (cellXs[i] != cx || cellZs[i] != cz) continue;
+
+                    float distSq = distanceSquared(i, center);
+                    if (distSq < radiusSq && distSq < bestDistSq
+                            && (filter == null || filter.test((T) items[i]))) {
+                        bestDistSq = distSq;
+                        best = i;
+                    }
+                }
+            }
+        }
+
+        return best == -1 ? null : (T) items[best];
+    }
+
+    /**
+     * Añade a result todos los elementos a menos de radius de center.
+     * @return número de elementos añadidos
+     */
+    @SuppressWarnings("unchecked")
+    public int queryRadius(Vector3f center, float radius, List<? super T> result) {
+        float radiusSq = radius * radius;
+        int found = 0;
+
+        int minX = cellCoord(center.x - radius);
+        int maxX = cellCoord(center.x + radius);
+        int minZ = cellCoord(center.z - radius);
+        int maxZ = cellCoord(center.z + radius);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                for (int i = bucketHeads[bucketIndex(cx, cz)]; i != -1; i = next[i]) {
+                    if (cellXs[i] != cx || cellZs[i] != cz) continue;
+
+                    if (distanceSquared(i, center) < radiusSq) {
+                        result.add((T) items[i]);
+                        found++;
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private float distanceSquared(int i, Vector3f center) {
+        float dx = xs[i] - center.x;
+        float dy = ys[i] - center.y;
+        float dz = zs[i] - center.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private int cellCoord(float value) {
+        return (int) Math.floor(value * invCellSize);
+    }
+
+    private int bucketIndex(int cellX, int cellZ) {
+        return ((cellX * 73856093) ^ (cellZ * 19349663)) & bucketMask;
+    }
+
+    private void grow() {
+        int capacity = items.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        cellXs = Arrays.copyOf(cellXs, capacity);
+        cellZs = Arrays.copyOf(cellZs, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        items = Arrays.copyOf(items, capacity);
+    }
+}
@@ -0,0 +1,131 @@
+package mygame.systems;
+
+import java.util.SplittableRandom;
+
+/**
+ * Apariciones de una oleada ya resueltas: registros (tiempo, tipo, carril) ordenados
+ * por tiempo en arrays planos. Durante la oleada solo se avanza un cursor.
+ */
+class SpawnTimeline {
+    // Tipo reservado para la entrada del boss
+    static final int BOSS = -1;
+    // Tolerancia para que la suma de pasos en float no retrase una aparición un tick
+    private static final float TIME_EPSILON = 1e-4f;
+
+    final float[] times;
+    final int[] types;
+    final int[] lanes;
+    private int cursor = 0;
+
+    private SpawnTimeline(int size) {
+        times = new float[size];
+        types = new int[size];
+        lanes = new int[size];
+    }
+
+    /**
+     * Sortea tipos y carriles de cada grupo y ordena el resultado por tiempo.
+     * A igual tiempo se conserva el orden de los grupos en el fichero.
+     */
+    static SpawnTimeline compile(WaveDefinition wave, SplittableRandom typeRandom, SplittableRandom laneRandom) {
+        SpawnTimeline timeline = new SpawnTimeline(wave.getTotalSpawns());
+        // Límites de los tramos ya ordenados: el boss y cada grupo
+        int[] runBounds = new int[wave.groups.length + 2];
+        int runs = 0;
+        int size = 0;
+
+        if (wave.hasBoss()) {
+            timeline.append(size++, 0f, BOSS, wave.bossLane);
+            runBounds[++runs] = size;
+        }
+        for (WaveDefinition.SpawnGroup group : wave.groups) {
+            if (group.count == 0) continue;
+            for (int k = 0; k < group.count; k++) {
+                int type = group.types[group.typeSampler.sample(typeRandom)].ordinal();
+                int lane = group.lanes.length == 1 ? group.lanes[0] : group.lanes[laneRandom.nextInt(group.lanes.length)];
+                // Como el temporizador anterior: la primera aparición llega tras un intervalo
+                timeline.append(size++, group.start + (k + 1) * group.interval, type, lane);
+            }
+            runBounds[++runs] = size;
+        }
+
+        timeline.mergeRuns(runBounds, runs);
+        return timeline;
+    }
+
+    private void append(int i, float time, int type, int lane) {
+        times[i] = time;
+        types[i] = type;
+        lanes[i] = lane;
+    }
+
+    /**
+     * Cada grupo sale ya ordenado por tiempo, así que basta con fusionar los tramos de
+     * dos en dos: O(n log grupos) y estable. Ordenar por inserción era cuadrático cuando
+     * los grupos se solapan (un grupo por carril en el modo infinito).
+     */
+    private void mergeRuns(int[] bounds, int runs) {
+        if (runs <= 1) return;
+
+        float[] srcTimes = times;
+        int[] srcTypes = types;
+        int[] srcLanes = lanes;
+        float[] dstTimes = new float[times.length];
+        int[] dstTypes = new int[times.length];
+        int[] dstLanes = new int[times.length];
+
+        while (runs > 1) {
+            int merged = 0;
+            for (int r = 0; r < runs; r += 2) {
+                int low = bounds[r];
+                int mid = bounds[r + 1];
+                int high = r + 2 <= runs ? bounds[r + 2] : mid;
+                int a = low;
+                int b = mid;
+                for (int out = low; out < high; out++) {
+                    int from = (b >= high || (a < mid && srcTimes[a] <= srcTimes[b])) ? a++ : b++;
+                    dstTimes[out] = srcTimes[from];
+                    dstTypes[out] = srcTypes[from];
+                    dstLanes[out] = srcLanes[from];
+                }
+                bounds[merged++] = low;
+            }
+            bounds[merged] = bounds[runs];
+            runs = merged;
+
+            float[] swapTimes = srcTimes;
+            srcTimes = dstTimes;
+            dstTimes = swapTimes;
+            int[] swapTypes = srcTypes;
+            srcTypes = dstTypes;
+            dstTypes = swapTypes;
+            int[] swapLanes = srcLanes;
+            srcLanes = dstLanes;
+            dstLanes = swapLanes;
+        }
+
+        if (srcTimes != times) {
+            System.arraycopy(srcTimes, 0, times, 0, times.length);
+            System.arraycopy(srcTypes, 0, types, 0, types.length);
+            System.arraycopy(srcLanes, 0, lanes, 0, lanes.length);
+        }
+    }
+
+    /**
+     * Índice de la siguiente aparición con tiempo <= waveTime (y avanza el cursor), o -1.
+     */
+    int pollDue(float waveTime) {
+        if (cursor < times.length && times[cursor] <= waveTime + TIME_EPSILON) {
+            return cursor++;
+        }
+        return -1;
+    }
+
+    boolean isFinished() {
+        return cursor == times.length;
+    }
+
+    int remaining() {
+        return times.length - cursor;
+    }
+}
@@ -0,0 +1,25 @@
+package mygame.systems;
+
+/**
+ * Efectos de estado que se pueden aplicar a un enemigo y cómo se acumulan.
+ */
+public enum StatusEffectType {
+    /** Multiplica la velocidad por magnitude; manda el más fuerte y se renueva la duración. */
+    SLOW(Stacking.STRONGEST),
+    /** Quita magnitude de vida en cada pulso; una instancia por fuente. */
+    DAMAGE_OVER_TIME(Stacking.PER_SOURCE),
+    /** Cada acumulación suma magnitude al daño recibido; se renueva la duración. */
+    ARMOR_SHRED(Stacking.ADDITIVE);
+
+    public enum Stacking {
+        STRONGEST,
+        PER_SOURCE,
+        ADDITIVE
+    }
+
+    public final Stacking stacking;
+
+    StatusEffectType(Stacking stacking) {
+        this.stacking = stacking;
+    }
+}
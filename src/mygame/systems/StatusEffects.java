@@ -0,0 +1,319 @@
+package mygame.systems;
+
+import java.util.Arrays;
+import mygame.entities.Enemy;
+import mygame.utils.Constants;
+
+/**
+ * Efectos de estado activos sobre los enemigos (ralentización, daño en el tiempo,
+ * rotura de armadura). Las instancias viven en arrays paralelos reutilizados y sus
+ * vencimientos se programan en una rueda de temporizadores con una casilla por tick
+ * de simulación: cada tick solo se visita la casilla actual, así que el coste depende
+ * de los efectos que vencen y no del número de efectos activos. Un vencimiento a más
+ * de una vuelta de la rueda espera en su casilla hasta que llega su tick.
+ */
+public class StatusEffects {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NONE = -1;
+    // Margen para que la acumulación en float de simTime no retrase un tick
+    private static final double TICK_EPSILON = 1e-6;
+
+    private final EnemySimStore store;
+    private final double tickSeconds;
+    private final int pulseTicks;
+    private final int wheelMask;
+    private final int[] bucketHeads;
+    private long currentTick = 0;
+
+    // Instancias de efecto
+    private StatusEffectType[] types = new StatusEffectType[INITIAL_CAPACITY];
+    private Enemy[] targets = new Enemy[INITIAL_CAPACITY];
+    private Object[] sources = new Object[INITIAL_CAPACITY];
+    private float[] magnitudes = new float[INITIAL_CAPACITY];
+    private int[] stacks = new int[INITIAL_CAPACITY];
+    private int[] pulsesLeft = new int[INITIAL_CAPACITY];
+    private long[] dueTicks = new long[INITIAL_CAPACITY];
+    // Lista doble de la casilla de la rueda; wheelNext también encadena las instancias libres
+    private int[] wheelNext = new int[INITIAL_CAPACITY];
+    private int[] wheelPrev = new int[INITIAL_CAPACITY];
+    // Siguiente efecto del mismo enemigo (la cabeza está en EnemySimStore.effectHead)
+    private int[] enemyNext = new int[INITIAL_CAPACITY];
+    private int used = 0;
+    private int freeHead = NONE;
+    private int activeCount = 0;
+
+    public StatusEffects(EnemySimStore store) {
+        this.store = store;
+        this.tickSeconds = 1.0 / Constants.SIMULATION_TICK_RATE;
+        this.pulseTicks = Math.max(1, Math.round(Constants.DOT_PULSE_INTERVAL * Constants.SIMULATION_TICK_RATE));
+        this.wheelMask = Constants.STATUS_EFFECT_WHEEL_SIZE - 1;
+        this.bucketHeads = new int[Constants.STATUS_EFFECT_WHEEL_SIZE];
+        Arrays.fill(bucketHeads, NONE);
+    }
+
+    /**
+     * Aplica un efecto de type a enemy según las reglas de acumulación del tipo.
+     * Para DAMAGE_OVER_TIME magnitude es el daño por pulso y duration se reparte
+     * en pulsos de Constants.DOT_PULSE_INTERVAL.
+     * @return false si el enemigo ya no está activo
+     */
+    public boolean apply(Enemy enemy, StatusEffectType type, float magnitude, float duration, Object source) {
+        int slot = enemy.getSlot();
+        if (slot < 0 || store.enemies[slot] != enemy || store.health[slot] <= 0) return false;
+
+        long expireTick = tickAt(store.simTime + duration);
+        switch (type.stacking) {
+            case STRONGEST: {
+                int e = find(slot, type, null);
+                if (e == NONE) {
+                    e = allocate(enemy, slot, type, source);
+                    magnitudes[e] = magnitude;
+                } else if (isStronger(type, magnitude, magnitudes[e])) {
+                    magnitudes[e] = magnitude;
+                    sources[e] = source;
+                } else if (magnitude != magnitudes[e]) {
+                    // Uno más débil no cambia ni alarga el vigente
+                    return true;
+                } else {
+                    sources[e] = source;
+                }
+                schedule(e, Math.max(expireTick, dueTicks[e]));
+                onChanged(slot, e);
+                return true;
+            }
+            case PER_SOURCE: {
+                int pulses = Math.max(1, Math.round(duration / Constants.DOT_PULSE_INTERVAL));
+                int e = find(slot, type, source);
+                if (e == NONE) {
+                    e = allocate(enemy, slot, type, source);
+                    magnitudes[e] = magnitude;
+                    schedule(e, currentTick + pulseTicks);
+                } else {
+                    magnitudes[e] = Math.max(magnitudes[e], magnitude);
+                }
+                pulsesLeft[e] = Math.max(pulsesLeft[e], pulses);
+                return true;
+            }
+            case ADDITIVE: {
+                int e = find(slot, type, null);
+                if (e == NONE) {
+                    e = allocate(enemy, slot, type, source);
+                }
+                magnitudes[e] = Math.max(magnitudes[e], magnitude);
+                stacks[e] = Math.min(stacks[e] + 1, Constants.ARMOR_SHRED_MAX_STACKS);
+                sources[e] = source;
+                schedule(e, expireTick);
+                onChanged(slot, e);
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Procesa los vencimientos y pulsos hasta simTime. Solo visita las casillas
+     * de los ticks transcurridos.
+     */
+    void advance(double simTime) {
+        long targetTick = (long) Math.floor(simTime / tickSeconds + TICK_EPSILON);
+        while (currentTick < targetTick) {
+            currentTick++;
+            int e = bucketHeads[(int) (currentTick & wheelMask)];
+            while (e != NONE) {
+                int next = wheelNext[e];
+                if (dueTicks[e] <= currentTick) {
+                    fire(e);
+                }
+                e = next;
+            }
+        }
+    }
+
+    /**
+     * Quita todos los efectos de enemy sin deshacerlos (el enemigo va a salir del store).
+     */
+    void removeAll(Enemy enemy) {
+        int slot = enemy.getSlot();
+        int e = store.effectHead[slot];
+        while (e != NONE) {
+            int next = enemyNext[e];
+            unlinkWheel(e);
+            free(e);
+            e = next;
+        }
+        store.effectHead[slot] = NONE;
+    }
+
+    void clear() {
+        Arrays.fill(bucketHeads, NONE);
+        Arrays.fill(types, 0, used, null);
+        Arrays.fill(targets, 0, used, null);
+        Arrays.fill(sources, 0, used, null);
+        used = 0;
+        freeHead = NONE;
+        activeCount = 0;
+        currentTick = 0;
+    }
+
+    /**
+     * true si enemy tiene algún efecto de type activo.
+     */
+    public boolean has(Enemy enemy, StatusEffectType type) {
+        int slot = enemy.getSlot();
+        return slot >= 0 && store.enemies[slot] == enemy && find(slot, type, null) != NONE;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    private void fire(int e) {
+        Enemy enemy = targets[e];
+        int slot = enemy.getSlot();
+
+        if (types[e] == StatusEffectType.DAMAGE_OVER_TIME) {
+            enemy.takeDamage((int) magnitudes[e]);
+            if (--pulsesLeft[e] > 0 && enemy.isAlive()) {
+                schedule(e, currentTick + pulseTicks);
+                return;
+            }
+        } else if (types[e] == StatusEffectType.SLOW) {
+            store.removeSlow(slot);
+        } else if (types[e] == StatusEffectType.ARMOR_SHRED) {
+            store.damageTakenBonus[slot] = 0f;
+        }
+
+        unlinkWheel(e);
+        unlinkEnemy(slot, e);
+        free(e);
+    }
+
+    /**
+     * Lleva el efecto e al estado de simulación del enemigo.
+     */
+    private void onChanged(int slot, int e) {
+        if (types[e] == StatusEffectType.SLOW) {
+            store.applySlow(slot, magnitudes[e]);
+        } else if (types[e] == StatusEffectType.ARMOR_SHRED) {
+            store.damageTakenBonus[slot] = magnitudes[e] * stacks[e];
+        }
+    }
+
+    /**
+     * En SLOW un factor menor frena más; en el resto manda la magnitud mayor.
+     */
+    private static boolean isStronger(StatusEffectType type, float candidate, float current) {
+        return type == StatusEffectType.SLOW ? candidate < current : candidate > current;
+    }
+
+    /**
+     * Efecto de type del slot; con source != null solo el de esa fuente.
+     */
+    private int find(int slot, StatusEffectType type, Object source) {
+        for (int e = store.effectHead[slot]; e != NONE; e = enemyNext[e]) {
+            if (types[e] == type && (source == null || sources[e] == source)) {
+                return e;
+            }
+        }
+        return NONE;
+    }
+
+    private long tickAt(double time) {
+        return (long) Math.ceil(time / tickSeconds - TICK_EPSILON);
+    }
+
+    private void schedule(int e, long dueTick) {
+        if (dueTicks[e] != Long.MIN_VALUE) {
+            unlinkWheel(e);
+        }
+
+        long tick = Math.max(dueTick, currentTick + 1);
+        dueTicks[e] = tick;
+        int bucket = (int) (tick & wheelMask);
+        int head = bucketHeads[bucket];
+        wheelPrev[e] = NONE;
+        wheelNext[e] = head;
+        if (head != NONE) {
+            wheelPrev[head] = e;
+        }
+        bucketHeads[bucket] = e;
+    }
+
+    private void unlinkWheel(int e) {
+        int prev = wheelPrev[e];
+        int next = wheelNext[e];
+        if (prev != NONE) {
+            wheelNext[prev] = next;
+        } else {
+            bucketHeads[(int) (dueTicks[e] & wheelMask)] = next;
+        }
+        if (next != NONE) {
+            wheelPrev[next] = prev;
+        }
+        dueTicks[e] = Long.MIN_VALUE;
+    }
+
+    private void unlinkEnemy(int slot, int e) {
+        int prev = NONE;
+        for (int cur = store.effectHead[slot]; cur != NONE; cur = enemyNext[cur]) {
+            if (cur == e) {
+                if (prev == NONE) {
+                    store.effectHead[slot] = enemyNext[e];
+                } else {
+                    enemyNext[prev] = enemyNext[e];
+                }
+                return;
+            }
+            prev = cur;
+        }
+    }
+
+    private int allocate(Enemy enemy, int slot, StatusEffectType type, Object source) {
+        int e;
+        if (freeHead != NONE) {
+            e = freeHead;
+            freeHead = wheelNext[e];
+        } else {
+            if (used == types.length) {
+                grow();
+            }
+            e = used++;
+        }
+
+        types[e] = type;
+        targets[e] = enemy;
+        sources[e] = source;
+        magnitudes[e] = 0f;
+        stacks[e] = 0;
+        pulsesLeft[e] = 0;
+        dueTicks[e] = Long.MIN_VALUE;
+        enemyNext[e] = store.effectHead[slot];
+        store.effectHead[slot] = e;
+        activeCount++;
+        return e;
+    }
+
+    private void free(int e) {
+        types[e] = null;
+        targets[e] = null;
+        sources[e] = null;
+        wheelNext[e] = freeHead;
+        freeHead = e;
+        activeCount--;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        sources = Arrays.copyOf(sources, capacity);
+        magnitudes = Arrays.copyOf(magnitudes, capacity);
+        stacks = Arrays.copyOf(stacks, capacity);
+        pulsesLeft = Arrays.copyOf(pulsesLeft, capacity);
+        dueTicks = Arrays.copyOf(dueTicks, capacity);
+        wheelNext = Arrays.copyOf(wheelNext, capacity);
+        wheelPrev = Arrays.copyOf(wheelPrev, capacity);
+        enemyNext = Arrays.copyOf(enemyNext, capacity);
+    }
+}
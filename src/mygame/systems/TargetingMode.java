@@ -0,0 +1,45 @@
+package mygame.systems;
+
+import com.jme3.math.Vector3f;
+import mygame.entities.Enemy;
+
+/**
+ * Estrategias de objetivo predefinidas.
+ */
+public enum TargetingMode implements TargetingStrategy {
+    /** El más cercano al castillo (menos distancia por recorrer). */
+    FIRST {
+        @Override
+        public Enemy selectTarget(EnemyManager enemyManager, Vector3f towerPosition, float[][] laneCoverage) {
+            return enemyManager.findFirstInCoverage(laneCoverage);
+        }
+    },
+    /** El más lejano al castillo. */
+    LAST {
+        @Override
+        public Enemy selectTarget(EnemyManager enemyManager, Vector3f towerPosition, float[][] laneCoverage) {
+            return enemyManager.findLastInCoverage(laneCoverage);
+        }
+    },
+    /** El que más vida conserva. */
+    STRONGEST {
+        @Override
+        public Enemy selectTarget(EnemyManager enemyManager, Vector3f towerPosition, float[][] laneCoverage) {
+            return enemyManager.findByHealthInCoverage(laneCoverage, true);
+        }
+    },
+    /** El que menos vida conserva. */
+    WEAKEST {
+        @Override
+        public Enemy selectTarget(EnemyManager enemyManager, Vector3f towerPosition, float[][] laneCoverage) {
+            return enemyManager.findByHealthInCoverage(laneCoverage, false);
+        }
+    },
+    /** El más cercano a la torre (comportamiento original). */
+    NEAREST {
+        @Override
+        public Enemy selectTarget(EnemyManager enemyManager, Vector3f towerPosition, float[][] laneCoverage) {
+            return enemyManager.findNearestEnemyInCoverage(towerPosition, laneCoverage);
+        }
+    }
+}
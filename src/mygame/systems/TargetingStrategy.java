@@ -0,0 +1,17 @@
+package mygame.systems;
+
+import com.jme3.math.Vector3f;
+import mygame.entities.Enemy;
+
+/**
+ * Criterio con el que una torre elige objetivo entre los enemigos de su cobertura.
+ * Las implementaciones consultan los índices por carril de EnemyManager, así que
+ * cada elección cuesta una búsqueda binaria por tramo más los enemigos recorridos.
+ */
+public interface TargetingStrategy {
+    /**
+     * @param laneCoverage tramos [inicio, fin] de t cubiertos en cada carril
+     * @return enemigo vivo elegido, o null si no hay ninguno en la cobertura
+     */
+    Enemy selectTarget(EnemyManager enemyManager, Vector3f towerPosition, float[][] laneCoverage);
+}
@@ -18,6 +18,16 @@ public class TowerManager {
     private final AssetManager assetManager;
     private final Node rootNode;
     private final List<Tower> towers;
+    private final ProjectileSystem projectiles;
+    private Path[] paths = new Path[0];
+    // Tabla de cobertura [tipo de torre][punto de colocación][carril] -> tramos de t
+    private float[][][][] placementCoverage = new float[0][][][];
+    // Estrategia de objetivo de las torres de ataque nuevas
+    private TargetingStrategy defaultTargeting = TargetingMode.FIRST;
+    
+    // Estadísticas del planificador de sueño de las torres
+    private long awakeTowerTicks = 0;
+    private long sleepingTowerTicks = 0;
     private Vector3f currentPlacementPoint;
     
     private final Map<Vector3f, Spatial> placementPointers;
@@ -46,13 +56,17 @@ public class TowerManager {
         this.assetManager = assetManager;
         this.rootNode = rootNode;
         this.towers = new ArrayList<>();
+        this.projectiles = new ProjectileSystem(assetManager, rootNode);
         this.currentPlacementPoint = null;
         this.placementPointers = new HashMap<>();
         this.pointersNode = new Node("TowerPointers");
         
         rootNode.attachChild(pointersNode);
-        initializeMaterials();
-        createPlacementPointers();
+        // Sin AssetManager (modo headless) no hay punteros visuales
+        if (assetManager != null) {
+            initializeMaterials();
+            createPlacementPointers();
+        }
         
         // Al inicio del juego, permitir colocar las primeras 2 torres
         towerPlacementWindowOpen = true;
@@ -75,7 +89,7 @@ public class TowerManager {
     
     private void createPlacementPointers() {
         for (Vector3f point : Constants.TOWER_PLACEMENT_POINTS) {
-            Spatial pointerModel = assetManager.loadModel("Models/Pointers/Pointer.j3o");
+            Spatial pointerModel = assetManager.loadModel(Constants.POINTER_MODEL);
             if (pointerModel != null) {
                 Vector3f pointerPosition = point.clone();
                 pointerPosition.y += POINTER_HEIGHT_OFFSET;
@@ -98,10 +112,131 @@ public class TowerManager {
         checkPlacementPoints(playerPosition);
         updatePointerStates(playerPosition);
         updatePointerAnimation(tpf);
+    }
+    
+    /**
+     * Caminos de los enemigos, para calcular qué tramos cubre cada torre.
+     */
+    public void setPaths(Path[] paths) {
+        this.paths = paths;
+        
+        Tower.TowerType[] types = Tower.TowerType.values();
+        placementCoverage = new float[types.length][Constants.TOWER_PLACEMENT_POINTS.length][][];
+        for (Tower.TowerType type : types) {
+            for (int p = 0; p < Constants.TOWER_PLACEMENT_POINTS.length; p++) {
+                placementCoverage[type.ordinal()][p] =
+                    computeLaneCoverage(Constants.TOWER_PLACEMENT_POINTS[p], type.getRange());
+            }
+        }
         
         for (Tower tower : towers) {
-            tower.update(tpf, enemyManager);
+            tower.setLaneCoverage(getLaneCoverage(tower.getType(), tower.getPosition()));
+        }
+    }
+    
+    /**
+     * Tramos de cada carril que cubriría una torre de type en point; usa la tabla
+     * precalculada si point es un punto de colocación.
+     */
+    private float[][] getLaneCoverage(Tower.TowerType type, Vector3f point) {
+        int index = getPlacementPointIndex(point);
+        if (index >= 0 && type.ordinal() < placementCoverage.length) {
+            return placementCoverage[type.ordinal()][index];
+        }
+        return computeLaneCoverage(point, type.getRange());
+    }
+    
+    /**
+     * Índice de point en Constants.TOWER_PLACEMENT_POINTS, o -1 si no es un punto de colocación.
+     */
+    public int getPlacementPointIndex(Vector3f point) {
+        if (point == null) return -1;
+        for (int i = 0; i < Constants.TOWER_PLACEMENT_POINTS.length; i++) {
+            if (Constants.TOWER_PLACEMENT_POINTS[i].equals(point)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Tramos de t de cada carril cubiertos por una torre de type en el punto pointIndex.
+     */
+    public float[][] getPlacementCoverage(Tower.TowerType type, int pointIndex) {
+        return placementCoverage[type.ordinal()][pointIndex];
+    }
+    
+    /**
+     * Fracción (0..1) del carril lane que cubriría una torre de type en el punto pointIndex,
+     * p. ej. 0.38 = "este punto cubre el 38% del camino izquierdo".
+     */
+    public float getPlacementCoverageFraction(Tower.TowerType type, int pointIndex, int lane) {
+        return Path.coverageFraction(placementCoverage[type.ordinal()][pointIndex][lane]);
+    }
+    
+    public void setDefaultTargeting(TargetingStrategy targeting) {
+        this.defaultTargeting = targeting;
+    }
+    
+    public int getLaneCount() {
+        return paths.length;
+    }
+    
+    private float[][] computeLaneCoverage(Vector3f position, float range) {
+        float[][] coverage = new float[paths.length][];
+        for (int i = 0; i < paths.length; i++) {
+            coverage[i] = paths[i].computeCoverage(position, range);
+        }
+        return coverage;
+    }
+    
+    /**
+     * Lógica de combate de las torres; se llama una vez por tick de simulación.
+     * Una torre sin objetivo se duerme hasta que se prevé que el siguiente enemigo
+     * entre en su alcance; cualquier aparición o cambio de velocidad la despierta.
+     */
+    public void updateTowers(float step, EnemyManager enemyManager) {
+        double now = enemyManager.getSimulationTime();
+        int epoch = enemyManager.getMovementEpoch();
+        
+        for (int i = 0; i < towers.size(); i++) {
+            Tower tower = towers.get(i);
+            if (tower.isSleeping(now, epoch)) {
+                sleepingTowerTicks++;
+                continue;
+            }
+            
+            awakeTowerTicks++;
+            boolean busy = tower.update(step, enemyManager);
+            if (!busy && tower.getLaneCoverage() != null) {
+                float delay = enemyManager.predictNextEntryDelay(tower.getLaneCoverage());
+                // Se despierta un tick antes de la entrada prevista por margen de redondeo
+                if (delay > step) {
+                    tower.sleep(now + delay - step, epoch);
+                }
+            }
         }
+        
+        projectiles.update(step);
+    }
+    
+    /**
+     * Actualiza la malla de proyectiles; una vez por frame, con el mismo alpha que los enemigos.
+     */
+    public void syncScene(float alpha) {
+        projectiles.syncScene(alpha);
+    }
+    
+    public ProjectileSystem getProjectiles() {
+        return projectiles;
+    }
+    
+    /**
+     * Fracción de ticks de torre que se han ahorrado durmiendo.
+     */
+    public float getSleepRatio() {
+        long total = awakeTowerTicks + sleepingTowerTicks;
+        return total == 0 ? 0f : (float) sleepingTowerTicks / total;
     }
     
     private void checkForCountdownStart(EnemyManager enemyManager) {
@@ -111,11 +246,9 @@ public class TowerManager {
         if (currentlyInCountdown && !wasInCountdown) {
             int nextWaveIndex = enemyManager.getNextWaveIndex();
             
-            // Abrir ventana de colocación para las oleadas apropiadas
-            // nextWaveIndex 1 = después de completar oleada 0
-            // nextWaveIndex 2 = después de completar oleada 1  
-            // nextWaveIndex 3 = después de completar oleada 2 (para boss)
-            if (nextWaveIndex == 1 || nextWaveIndex == 2) {
+            // Abrir ventana de colocación tras cada oleada completada,
+            // salvo antes de una oleada de boss
+            if (nextWaveIndex > 0 && !enemyManager.isNextWaveBoss()) {
                 openTowerPlacementWindow();
             }
         }
@@ -228,6 +361,9 @@ public class TowerManager {
         
         Tower newTower = new Tower(assetManager, type);
         newTower.setPosition(currentPlacementPoint);
+        newTower.setLaneCoverage(getLaneCoverage(type, currentPlacementPoint));
+        newTower.setTargeting(defaultTargeting);
+        newTower.setProjectiles(projectiles);
         rootNode.attachChild(newTower.getModel());
         towers.add(newTower);
         
@@ -249,6 +385,19 @@ public class TowerManager {
         return true;
     }
     
+    /**
+     * Coloca una torre en un punto de colocación concreto sin depender de la
+     * posición del jugador (usado por la simulación headless). Respeta las
+     * mismas reglas de ventanas y límites que placeTower.
+     */
+    public boolean placeTowerAt(Tower.TowerType type, Vector3f point) {
+        if (isTowerAtPoint(point)) {
+            return false;
+        }
+        currentPlacementPoint = point.clone();
+        return placeTower(type);
+    }
+    
     private void updatePointerForPoint(Vector3f point) {
         Spatial pointer = placementPointers.get(point);
         if (pointer != null) {
@@ -301,21 +450,34 @@ public class TowerManager {
     }
     
     public void cleanup() {
+        reset();
+        pointersNode.detachAllChildren();
+        placementPointers.clear();
+        currentPlacementPoint = null;
+        if (assetManager != null) {
+            createPlacementPointers();
+        }
+        System.out.println("TowerManager limpiado y reseteado");
+    }
+    
+    /**
+     * Quita las torres y reinicia los contadores; los punteros ya cargados se conservan.
+     */
+    public void reset() {
         for (Tower tower : towers) {
             if (tower.getModel().getParent() != null) {
                 rootNode.detachChild(tower.getModel());
             }
         }
         towers.clear();
+        projectiles.clear();
         towersPlacedThisWave = 0;
         totalTowersPlaced = 0;
         towerPlacementWindowOpen = true; // Resetear para permitir colocar al inicio
         lastWaveIndex = -1;
         wasInCountdown = false; // Resetear el tracking del countdown
-        pointersNode.detachAllChildren();
-        placementPointers.clear();
         currentPlacementPoint = null;
-        createPlacementPointers();
-        System.out.println("TowerManager limpiado y reseteado");
-    } 
+        awakeTowerTicks = 0;
+        sleepingTowerTicks = 0;
+    }
 }
\ No newline at end of file
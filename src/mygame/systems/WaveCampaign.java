@@ -0,0 +1,266 @@
+package mygame.systems;
+
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetManager;
+import com.jme3.plugins.json.Json;
+import com.jme3.plugins.json.JsonArray;
+import com.jme3.plugins.json.JsonObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import mygame.entities.Enemy.EnemyType;
+import mygame.utils.Constants;
+
+/**
+ * Lista de oleadas de una partida, cargada de un fichero JSON de campaña:
+ *
+ * <pre>
+ * { "name": "...", "waves": [
+ *     { "announcement": "...", "countdown": 20,
+ *       "groups": [ { "start": 0, "count": 60, "interval": 0.6, "lanes": [0, 1, 2],
+ *                     "types": ["BLUE_DEMON", "DEMON"], "weights": [0.5, 0.5] } ] },
+ *     { "announcement": "...", "countdown": 8, "boss": { "lane": 1 } } ] }
+ * </pre>
+ *
+ * "start" (0), "countdown" (WAVE_COUNTDOWN_DURATION), "weights" (iguales),
+ * "lanes" (todos) y "healthScale" (1) son opcionales.
+ *
+ * Un bloque "endless" activa el modo infinito: al acabar las oleadas fijas se
+ * generan otras nuevas con la curva de EndlessWaves. Sus campos (count, countGrowth,
+ * interval, intervalDecay, minInterval, healthGrowth, countdown, bossEvery) toman
+ * los valores de Constants si faltan.
+ */
+public class WaveCampaign {
+    private final String name;
+    private final WaveDefinition[] waves;
+    // Curva del modo infinito (null = la campaña termina tras sus oleadas)
+    private final EndlessWaves endless;
+    private final int laneCount;
+    // La oleada infinita se consulta cada frame durante la cuenta atrás: se genera una vez
+    private WaveDefinition generatedWave;
+    private int generatedIndex = -1;
+
+    public WaveCampaign(String name, WaveDefinition[] waves) {
+        this(name, waves, null, 0);
+    }
+
+    public WaveCampaign(String name, WaveDefinition[] waves, EndlessWaves endless, int laneCount) {
+        if (waves.length == 0 && endless == null) {
+            throw new IllegalArgumentException("La campaña " + name + " no tiene oleadas");
+        }
+        this.name = name;
+        this.waves = waves;
+        this.endless = endless;
+        this.laneCount = laneCount;
+    }
+
+    /**
+     * Campaña solo con oleadas infinitas según la curva por defecto.
+     */
+    public static WaveCampaign createEndless(int laneCount) {
+        return new WaveCampaign("Infinito", new WaveDefinition[0], EndlessWaves.createDefault(), laneCount);
+    }
+
+    /**
+     * Campaña para medir capacidad: la curva infinita por defecto sin tope de ritmo ni
+     * boss, así que los enemigos en marcha crecen hasta que el tick no cabe en el presupuesto.
+     */
+    public static WaveCampaign createCapacityRamp(int laneCount) {
+        EndlessWaves ramp = new EndlessWaves(Constants.ENDLESS_BASE_COUNT, Constants.ENDLESS_COUNT_GROWTH,
+            Constants.ENDLESS_BASE_INTERVAL, Constants.ENDLESS_INTERVAL_DECAY, Constants.CAPACITY_RAMP_MIN_INTERVAL,
+            Constants.ENDLESS_HEALTH_GROWTH, Constants.ENDLESS_COUNTDOWN, 0);
+        return new WaveCampaign("Rampa de capacidad", new WaveDefinition[0], ramp, laneCount);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Oleadas fijas de la campaña (sin contar las infinitas).
+     */
+    public int size() {
+        return waves.length;
+    }
+
+    public boolean isEndless() {
+        return endless != null;
+    }
+
+    /**
+     * true si la oleada index la genera el modo infinito.
+     */
+    public boolean isEndlessWave(int index) {
+        return endless != null && index >= waves.length;
+    }
+
+    public boolean hasWave(int index) {
+        return index < waves.length || endless != null;
+    }
+
+    public WaveDefinition get(int index) {
+        if (index < waves.length) {
+            return waves[index];
+        }
+        if (index != generatedIndex) {
+            generatedWave = endless.generate(index - waves.length, laneCount);
+            generatedIndex = index;
+        }
+        return generatedWave;
+    }
+
+    /**
+     * Carga la campaña con el AssetManager; si falla, usa la campaña por defecto.
+     */
+    public static WaveCampaign load(AssetManager assetManager, String assetPath, int laneCount) {
+        try (InputStream stream = assetManager.locateAsset(new AssetKey<>(assetPath)).openStream()) {
+            return parse(stream, laneCount);
+        } catch (Exception e) {
+            System.err.println("❌ No se pudo cargar la campaña " + assetPath + ": " + e.getMessage());
+            return createDefault();
+        }
+    }
+
+    /**
+     * Carga la campaña desde un fichero (modo headless); si falla, usa la campaña por defecto.
+     */
+    public static WaveCampaign load(java.nio.file.Path file, int laneCount) {
+        try (InputStream stream = Files.newInputStream(file)) {
+            return parse(stream, laneCount);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ No se pudo cargar la campaña " + file + ": " + e.getMessage());
+            return createDefault();
+        }
+    }
+
+    public static WaveCampaign parse(InputStream stream, int laneCount) {
+        JsonObject root = Json.create().parse(stream);
+        String name = root.has("name") ? root.get("name").getAsString() : "Sin nombre";
+
+        JsonArray waveArray = root.getAsJsonArray("waves");
+        WaveDefinition[] waves = new WaveDefinition[waveArray.size()];
+        for (int i = 0; i < waves.length; i++) {
+            waves[i] = parseWave(waveArray.get(i).getAsJsonObject(), i, laneCount);
+        }
+
+        EndlessWaves endless = root.has("endless") ? parseEndless(root.getAsJsonObject("endless")) : null;
+        WaveCampaign campaign = new WaveCampaign(name, waves, endless, laneCount);
+        System.out.println("✅ Campaña \"" + name + "\" cargada: " + waves.length + " oleadas"
+            + (endless != null ? " + modo infinito" : ""));
+        return campaign;
+    }
+
+    private static EndlessWaves parseEndless(JsonObject json) {
+        return new EndlessWaves(
+            json.has("count") ? json.get("count").getAsInt() : Constants.ENDLESS_BASE_COUNT,
+            getFloat(json, "countGrowth", Constants.ENDLESS_COUNT_GROWTH),
+            getFloat(json, "interval", Constants.ENDLESS_BASE_INTERVAL),
+            getFloat(json, "intervalDecay", Constants.ENDLESS_INTERVAL_DECAY),
+            getFloat(json, "minInterval", Constants.ENDLESS_MIN_INTERVAL),
+            getFloat(json, "healthGrowth", Constants.ENDLESS_HEALTH_GROWTH),
+            getFloat(json, "countdown", Constants.ENDLESS_COUNTDOWN),
+            json.has("bossEvery") ? json.get("bossEvery").getAsInt() : Constants.ENDLESS_BOSS_EVERY);
+    }
+
+    private static float getFloat(JsonObject json, String key, float defaultValue) {
+        return json.has(key) ? json.get(key).getAsFloat() : defaultValue;
+    }
+
+    private static WaveDefinition parseWave(JsonObject json, int index, int laneCount) {
+        String announcement = json.has("announcement")
+            ? json.get("announcement").getAsString()
+            : "¡Oleada " + (index + 1) + " iniciada!";
+        float countdown = getFloat(json, "countdown", Constants.WAVE_COUNTDOWN_DURATION);
+        float healthScale = getFloat(json, "healthScale", 1f);
+
+        int bossLane = -1;
+        if (json.has("boss")) {
+            JsonObject boss = json.getAsJsonObject("boss");
+            bossLane = boss.has("lane") ? boss.get("lane").getAsInt() : laneCount / 2;
+            checkLane(bossLane, laneCount, index);
+        }
+
+        List<WaveDefinition.SpawnGroup> groups = new ArrayList<>();
+        if (json.has("groups")) {
+            JsonArray groupArray = json.getAsJsonArray("groups");
+            for (int g = 0; g < groupArray.size(); g++) {
+                groups.add(parseGroup(groupArray.get(g).getAsJsonObject(), index, laneCount));
+            }
+        }
+
+        return new WaveDefinition(announcement, countdown,
+            groups.toArray(new WaveDefinition.SpawnGroup[0]), bossLane, healthScale);
+    }
+
+    private static WaveDefinition.SpawnGroup parseGroup(JsonObject json, int waveIndex, int laneCount) {
+        float start = json.has("start") ? json.get("start").getAsFloat() : 0f;
+        int count = json.get("count").getAsInt();
+        float interval = json.get("interval").getAsFloat();
+
+        JsonArray typeArray = json.getAsJsonArray("types");
+        EnemyType[] types = new EnemyType[typeArray.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = EnemyType.valueOf(typeArray.get(i).getAsString());
+        }
+
+        float[] weights = new float[types.length];
+        JsonArray weightArray = json.has("weights") ? json.getAsJsonArray("weights") : null;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weightArray != null ? weightArray.get(i).getAsFloat() : 1f;
+        }
+
+        int[] lanes;
+        if (json.has("lanes")) {
+            JsonArray laneArray = json.getAsJsonArray("lanes");
+            lanes = new int[laneArray.size()];
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = laneArray.get(i).getAsInt();
+                checkLane(lanes[i], laneCount, waveIndex);
+            }
+        } else {
+            lanes = new int[laneCount];
+            for (int i = 0; i < laneCount; i++) {
+                lanes[i] = i;
+            }
+        }
+
+        return new WaveDefinition.SpawnGroup(start, count, interval, types, weights, lanes);
+    }
+
+    private static void checkLane(int lane, int laneCount, int waveIndex) {
+        if (lane < 0 || lane >= laneCount) {
+            throw new IllegalArgumentException("Carril " + lane + " inexistente en la oleada " + (waveIndex + 1));
+        }
+    }
+
+    /**
+     * Las tres oleadas y el boss originales; se usa si no hay fichero de campaña.
+     */
+    public static WaveCampaign createDefault() {
+        int[] allLanes = {0, 1, 2};
+        return new WaveCampaign("Por defecto", new WaveDefinition[] {
+            new WaveDefinition("¡Oleada 1 iniciada! Solo enemigos normales", Constants.WAVE_START_DELAY,
+                new WaveDefinition.SpawnGroup[] {
+                    new WaveDefinition.SpawnGroup(0f, 60, 0.6f,
+                        new EnemyType[]{EnemyType.BLUE_DEMON, EnemyType.DEMON},
+                        new float[]{0.5f, 0.5f}, allLanes)
+                }, -1),
+            new WaveDefinition("¡Oleada 2 iniciada! Enemigos normales + Mini-Bosses", Constants.WAVE_COUNTDOWN_DURATION,
+                new WaveDefinition.SpawnGroup[] {
+                    new WaveDefinition.SpawnGroup(0f, 70, 0.6f,
+                        new EnemyType[]{EnemyType.BLUE_DEMON, EnemyType.DEMON, EnemyType.ORC_SKULL, EnemyType.GHOST_SKULL},
+                        new float[]{0.475f, 0.472f, 0.025f, 0.025f}, allLanes)
+                }, -1),
+            new WaveDefinition("¡Oleada 3 iniciada! Enemigos fuertes", Constants.WAVE_COUNTDOWN_DURATION,
+                new WaveDefinition.SpawnGroup[] {
+                    new WaveDefinition.SpawnGroup(0f, 80, 0.5f,
+                        new EnemyType[]{EnemyType.BLUE_DEMON, EnemyType.DEMON, EnemyType.ORC_SKULL, EnemyType.GHOST_SKULL},
+                        new float[]{0.4f, 0.4f, 0.1f, 0.1f}, allLanes)
+                }, -1),
+            new WaveDefinition("¡BOSS FINAL HA APARECIDO EN EL CAMINO CENTRAL!", Constants.BOSS_COUNTDOWN_DURATION,
+                new WaveDefinition.SpawnGroup[0], 1)
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package mygame.systems;
+
+import mygame.entities.Enemy.EnemyType;
+
+/**
+ * Definición de una oleada tal como se escribe en el fichero de campaña.
+ * Se compila en un SpawnTimeline al empezar la oleada.
+ */
+public class WaveDefinition {
+    final String announcement;
+    // Segundos de cuenta atrás antes de la oleada
+    final float countdown;
+    final SpawnGroup[] groups;
+    // Carril del boss, o -1 si la oleada no tiene boss
+    final int bossLane;
+    // Multiplicador de la vida base de los enemigos normales (no del boss)
+    final float healthMultiplier;
+
+    public WaveDefinition(String announcement, float countdown, SpawnGroup[] groups, int bossLane) {
+        this(announcement, countdown, groups, bossLane, 1f);
+    }
+
+    public WaveDefinition(String announcement, float countdown, SpawnGroup[] groups, int bossLane,
+                          float healthMultiplier) {
+        this.announcement = announcement;
+        this.countdown = countdown;
+        this.groups = groups;
+        this.bossLane = bossLane;
+        this.healthMultiplier = healthMultiplier;
+    }
+
+    public boolean hasBoss() {
+        return bossLane >= 0;
+    }
+
+    public int getTotalSpawns() {
+        int total = hasBoss() ? 1 : 0;
+        for (SpawnGroup group : groups) {
+            total += group.count;
+        }
+        return total;
+    }
+
+    public float getHealthMultiplier() {
+        return healthMultiplier;
+    }
+
+    /**
+     * count enemigos, uno cada interval segundos a partir de start. El tipo se sortea
+     * con weights y el carril uniformemente entre lanes; con un solo tipo y un solo
+     * carril el grupo es totalmente determinista.
+     */
+    public static class SpawnGroup {
+        final float start;
+        final int count;
+        final float interval;
+        final EnemyType[] types;
+        final float[] weights;
+        final int[] lanes;
+        final AliasTable typeSampler;
+
+        public SpawnGroup(float start, int count, float interval, EnemyType[] types, float[] weights, int[] lanes) {
+            if (types.length == 0 || types.length != weights.length || lanes.length == 0) {
+                throw new IllegalArgumentException("Grupo de oleada sin tipos, pesos o carriles válidos");
+            }
+            this.start = start;
+            this.count = count;
+            this.interval = interval;
+            this.types = types;
+            this.weights = weights;
+            this.lanes = lanes;
+            this.typeSampler = new AliasTable(weights);
+        }
+    }
+}
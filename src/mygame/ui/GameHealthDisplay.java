@@ -14,6 +14,7 @@ public class GameHealthDisplay {
     private final HealthBar bossBar;
     private final Castle castle;
     private Boss boss;
+    private static final ColorRGBA CASTLE_BAR_COLOR = new ColorRGBA(0, 0.8f, 1f, 1f);
     
 
     public GameHealthDisplay(Castle castle, Node guiNode, BitmapFont font, 
@@ -23,7 +24,7 @@ public class GameHealthDisplay {
         // Reutilizamos el mismo constructor de HealthBar
         castleBar = createHealthBar(assetManager, guiNode, font, "Castillo", 
                                   new ColorRGBA(0.2f, 0.2f, 0.2f, 0.8f),
-                                  new ColorRGBA(0, 0.8f, 1f, 1f));
+                                  CASTLE_BAR_COLOR);
         
         bossBar = createHealthBar(assetManager, guiNode, font, "Boss Final",
                                 new ColorRGBA(0.3f, 0f, 0.3f, 0.8f),
@@ -73,6 +74,15 @@ public class GameHealthDisplay {
         bar.setPulseEffect(percent < pulseThreshold, pulseColor, pulseSpeed);
     }
 
+    /**
+     * Vuelve al estado inicial: castillo con su color original y sin boss.
+     */
+    public void reset() {
+        setBoss(null);
+        castleBar.setPulseEffect(false);
+        castleBar.update(castle.getCurrentHealth(), castle.getMaxHealth(), CASTLE_BAR_COLOR);
+    }
+
     public void cleanup() {
         castleBar.cleanup();
         bossBar.cleanup();
@@ -4,10 +4,140 @@
  */
 package mygame.ui;
 
+import com.jme3.app.Application;
+import com.jme3.app.state.BaseAppState;
+import com.jme3.font.BitmapFont;
+import com.jme3.font.BitmapText;
+import com.jme3.input.KeyInput;
+import com.jme3.input.controls.ActionListener;
+import com.jme3.input.controls.KeyTrigger;
+import com.jme3.math.ColorRGBA;
+import com.jme3.scene.Node;
+import mygame.core.Main;
+import mygame.utils.AssetPreloader;
+import mygame.utils.Constants;
+
 /**
+ * Pantalla de carga: muestra el progreso de AssetPreloader, deja elegir entre la
+ * campaña y el modo infinito (tecla M) y arranca la partida con ENTER cuando
+ * todos los modelos están en memoria.
  *
  * @author Jesus
  */
-public class MenuScreen {
-    
+public class MenuScreen extends BaseAppState {
+    private final Main main;
+    private final AssetPreloader preloader;
+    private final Node screenNode = new Node("MenuScreen");
+    private BitmapText titleText;
+    private BitmapText modeText;
+    private BitmapText startText;
+    private HealthBar progressBar;
+    private boolean endlessMode = false;
+    private boolean startRequested = false;
+    private boolean finished = false;
+
+    public MenuScreen(Main main, AssetPreloader preloader) {
+        this.main = main;
+        this.preloader = preloader;
+    }
+
+    @Override
+    protected void initialize(Application app) {
+        BitmapFont font = app.getAssetManager().loadFont("Interface/Fonts/Default.fnt");
+        int width = app.getContext().getSettings().getWidth();
+        int height = app.getContext().getSettings().getHeight();
+
+        titleText = new BitmapText(font, false);
+        titleText.setSize(font.getCharSet().getRenderedSize() * 2.5f);
+        titleText.setColor(new ColorRGBA(1f, 0.8f, 0f, 1f));
+        titleText.setText("Nightfall Bastion");
+        titleText.setLocalTranslation(width / 2 - titleText.getLineWidth() / 2, height * 0.6f, 0);
+        screenNode.attachChild(titleText);
+
+        // Se reutiliza la barra de vida como barra de progreso
+        progressBar = new HealthBar(app.getAssetManager(), screenNode,
+            Constants.BAR_WIDTH, Constants.BAR_HEIGHT,
+            new ColorRGBA(0.2f, 0.2f, 0.2f, 0.8f), new ColorRGBA(0.2f, 0.8f, 0.2f, 1f),
+            font, "Cargando");
+        progressBar.setPosition((width - Constants.BAR_WIDTH) / 2, height * 0.45f);
+
+        modeText = new BitmapText(font, false);
+        modeText.setSize(font.getCharSet().getRenderedSize() * 1.5f);
+        modeText.setColor(ColorRGBA.White);
+        screenNode.attachChild(modeText);
+        updateModeText(width, height);
+
+        startText = new BitmapText(font, false);
+        startText.setSize(font.getCharSet().getRenderedSize() * 1.5f);
+        startText.setColor(ColorRGBA.White);
+        startText.setText("Pulsa ENTER para empezar");
+        startText.setLocalTranslation(width / 2 - startText.getLineWidth() / 2, height * 0.3f, 0);
+    }
+
+    private void updateModeText(int width, int height) {
+        modeText.setText("Modo: " + (endlessMode ? "infinito" : "campaña") + " (M para cambiar)");
+        modeText.setLocalTranslation(width / 2 - modeText.getLineWidth() / 2, height * 0.38f, 0);
+    }
+
+    @Override
+    protected void cleanup(Application app) {
+        screenNode.removeFromParent();
+    }
+
+    @Override
+    protected void onEnable() {
+        main.getGuiNode().attachChild(screenNode);
+        main.getInputManager().addMapping("ToggleEndless", new KeyTrigger(KeyInput.KEY_M));
+        main.getInputManager().addMapping("StartGame", new KeyTrigger(KeyInput.KEY_RETURN));
+        main.getInputManager().addListener(actionListener, "ToggleEndless", "StartGame");
+    }
+
+    @Override
+    protected void onDisable() {
+        screenNode.removeFromParent();
+        main.getInputManager().removeListener(actionListener);
+        if (main.getInputManager().hasMapping("ToggleEndless")) {
+            main.getInputManager().deleteMapping("ToggleEndless");
+        }
+        if (main.getInputManager().hasMapping("StartGame")) {
+            main.getInputManager().deleteMapping("StartGame");
+        }
+    }
+
+    private final ActionListener actionListener = (name, isPressed, tpf) -> {
+        if (!isPressed || finished) return;
+
+        if (name.equals("ToggleEndless")) {
+            toggleEndless();
+        } else if (name.equals("StartGame")) {
+            startRequested = isLoaded();
+        }
+    };
+
+    private void toggleEndless() {
+        endlessMode = !endlessMode;
+        updateModeText(main.getContext().getSettings().getWidth(), main.getContext().getSettings().getHeight());
+    }
+
+    private boolean isLoaded() {
+        return preloader.isDone();
+    }
+
+    @Override
+    public void update(float tpf) {
+        if (finished) return;
+
+        progressBar.update(preloader.getCompletedCount(), preloader.getTotalCount(), progressBar.getCurrentColor());
+
+        // La lógica del juego solo arranca cuando todo está cargado y el jugador lo pide
+        if (preloader.isDone() && startText.getParent() == null) {
+            screenNode.attachChild(startText);
+        }
+        if (startRequested) {
+            finished = true;
+            getStateManager().detach(this);
+            main.setEndlessMode(endlessMode);
+            main.onAssetsLoaded();
+        }
+    }
 }
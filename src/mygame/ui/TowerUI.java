@@ -6,8 +6,12 @@ import com.jme3.math.ColorRGBA;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import com.jme3.system.AppSettings;
+import mygame.entities.Tower;
 import mygame.systems.TowerManager;
 public class TowerUI {
+    private static final String[] LANE_NAMES = {"izq", "centro", "der"};
+    
+
     private final Node guiNode;
     private final BitmapText instructionsText;
     private final BitmapText placementText;
@@ -57,9 +61,10 @@ public class TowerUI {
     
     private void updateInstructions() {
         if (canPlace && placementPoint != null) {
+            int pointIndex = towerManager.getPlacementPointIndex(placementPoint);
             placementText.setText("¡Puedes colocar una torre aquí!\n" +
-                                "Presiona 1 para Torre de Ataque\n" +
-                                "Presiona 2 para Torre de Ralentización");
+                                "Presiona 1 para Torre de Ataque" + coverageText(Tower.TowerType.ATTACK, pointIndex) + "\n" +
+                                "Presiona 2 para Torre de Ralentización" + coverageText(Tower.TowerType.SLOW, pointIndex));
             placementText.setColor(ColorRGBA.Green);
 
             instructionsText.setText("Torres disponibles:\n" +
@@ -77,6 +82,21 @@ public class TowerUI {
         }
     }
     
+    /**
+     * Vista previa de cobertura de una torre de type en el punto: porcentaje de cada camino.
+     */
+    private String coverageText(Tower.TowerType type, int pointIndex) {
+        if (pointIndex < 0 || towerManager.getLaneCount() == 0) return "";
+        
+        StringBuilder text = new StringBuilder(" (cubre");
+        for (int lane = 0; lane < towerManager.getLaneCount(); lane++) {
+            String name = lane < LANE_NAMES.length ? LANE_NAMES[lane] : String.valueOf(lane + 1);
+            int percent = Math.round(towerManager.getPlacementCoverageFraction(type, pointIndex, lane) * 100f);
+            text.append(' ').append(name).append(' ').append(percent).append('%');
+        }
+        return text.append(')').toString();
+    }
+    
     public void cleanup() {
         guiNode.detachChild(instructionsText);
         guiNode.detachChild(placementText);
@@ -138,11 +138,11 @@ public class WaveCountdownUI {
         }
     }
     
-    public void startCountdown(int nextWaveIndex, float duration) {
+    public void startCountdown(int nextWaveIndex, boolean bossWave, float duration) {
         this.countdownTimer = duration;
         this.active = true;
         
-        if (nextWaveIndex == 3) { // Pantalla de boss separada
+        if (bossWave) { // Pantalla de boss separada
             waveAnnouncementText.setText("¡BOSS FINAL!");
             waveAnnouncementText.setColor(new ColorRGBA(0.8f, 0f, 0.8f, 1f));
             startBossWarning(Constants.BOSS_WARNING_DURATION);
@@ -220,6 +220,16 @@ public class WaveCountdownUI {
         waveAnnouncementText.setCullHint(visible ? Spatial.CullHint.Never : Spatial.CullHint.Always);
     }
     
+    public void reset() {
+        active = false;
+        bossWarningActive = false;
+        countdownTimer = 0;
+        bossWarningTimer = 0;
+        setVisible(false);
+        bossWarningText.setCullHint(Spatial.CullHint.Always);
+        setCurrentWave(0);
+    }
+    
     public void cleanup() {
         countdownText.removeFromParent();
         waveAnnouncementText.removeFromParent();
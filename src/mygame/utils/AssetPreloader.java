@@ -0,0 +1,113 @@
+package mygame.utils;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.scene.Spatial;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import mygame.entities.Enemy.EnemyType;
+import mygame.entities.Tower.TowerType;
+
+/**
+ * Carga en paralelo, en hilos de fondo, todos los modelos que usa la partida.
+ * Guarda una referencia a cada modelo cargado para que la caché del AssetManager
+ * los mantenga vivos; después assetManager.loadModel solo devuelve un clon.
+ */
+public class AssetPreloader {
+    private final AssetManager assetManager;
+    private final List<String> modelPaths;
+    private final Map<String, Spatial> loadedModels = new ConcurrentHashMap<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private ExecutorService executor;
+    private long startNanos;
+    private volatile long elapsedMillis = -1;
+
+    public AssetPreloader(AssetManager assetManager, List<String> modelPaths) {
+        this.assetManager = assetManager;
+        this.modelPaths = new ArrayList<>(modelPaths);
+    }
+
+    /**
+     * Todos los modelos referenciados por los enemigos, las torres y el escenario.
+     */
+    public static List<String> collectGameModelPaths() {
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add(Constants.MAP_MODEL);
+        paths.add(Constants.CASTLE_MODEL);
+        paths.add(Constants.PLAYER_MODEL);
+        paths.add(Constants.POINTER_MODEL);
+        for (TowerType type : TowerType.values()) {
+            paths.add(type.modelPath);
+        }
+        for (EnemyType type : EnemyType.values()) {
+            paths.add(type.modelPath);
+        }
+        return new ArrayList<>(paths);
+    }
+
+    public void start() {
+        if (executor != null) return;
+
+        startNanos = System.nanoTime();
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "AssetPreloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (String path : modelPaths) {
+            executor.submit(() -> load(path));
+        }
+        executor.shutdown();
+    }
+
+    private void load(String path) {
+        try {
+            loadedModels.put(path, assetManager.loadModel(path));
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            System.out.println("❌ Error precargando " + path + ": " + e.getMessage());
+        }
+
+        if (completed.incrementAndGet() == modelPaths.size()) {
+            elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            System.out.println("✅ " + loadedModels.size() + "/" + modelPaths.size()
+                + " modelos precargados en " + elapsedMillis + " ms");
+        }
+    }
+
+    /**
+     * Progreso de la carga entre 0 y 1.
+     */
+    public float getProgress() {
+        return modelPaths.isEmpty() ? 1f : (float) completed.get() / modelPaths.size();
+    }
+
+    public boolean isDone() {
+        return completed.get() >= modelPaths.size();
+    }
+
+    public int getCompletedCount() {
+        return completed.get();
+    }
+
+    public int getTotalCount() {
+        return modelPaths.size();
+    }
+
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
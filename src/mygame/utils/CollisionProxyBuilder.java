@@ -0,0 +1,148 @@
+package mygame.utils;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.bullet.collision.shapes.BoxCollisionShape;
+import com.jme3.bullet.collision.shapes.CompoundCollisionShape;
+import com.jme3.bullet.collision.shapes.HeightfieldCollisionShape;
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.Ray;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+
+/**
+ * Genera formas de colisión simplificadas a partir de los modelos de render,
+ * para no tener que colisionar contra cada triángulo de la malla visual.
+ */
+public class CollisionProxyBuilder {
+    private static final float RAY_START_MARGIN = 10f;
+
+    private CollisionProxyBuilder() {
+    }
+
+    /**
+     * Heightfield del suelo de model, muestreado con rayos verticales sobre una
+     * rejilla cuadrada de size x size puntos (size = 2^n + 1) centrada en el mapa.
+     * Se devuelve dentro de un compound para que el cuerpo quede en el origen.
+     */
+    public static CompoundCollisionShape buildHeightfield(Spatial model, int size, float margin) {
+        model.updateGeometricState();
+
+        float side = Math.max(Constants.getMapSizeX(), Constants.getMapSizeZ()) + margin * 2f;
+        float spacing = side / (size - 1);
+        float originX = Constants.getMapCenterX() - side / 2f;
+        float originZ = Constants.getMapCenterZ() - side / 2f;
+
+        BoundingVolume bound = model.getWorldBound();
+        float rayStartY = RAY_START_MARGIN;
+        if (bound instanceof BoundingBox box) {
+            rayStartY += box.getCenter().y + box.getYExtent();
+        }
+
+        float[] heights = new float[size * size];
+        boolean[] hit = new boolean[size * size];
+        float minHeight = Float.POSITIVE_INFINITY;
+        float maxHeight = Float.NEGATIVE_INFINITY;
+
+        Ray ray = new Ray(new Vector3f(), new Vector3f(0, -1, 0));
+        CollisionResults results = new CollisionResults();
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                ray.getOrigin().set(originX + x * spacing, rayStartY, originZ + z * spacing);
+                results.clear();
+                model.collideWith(ray, results);
+                if (results.size() == 0) continue;
+
+                float height = results.getClosestCollision().getContactPoint().y;
+                int index = z * size + x;
+                heights[index] = height;
+                hit[index] = true;
+                minHeight = Math.min(minHeight, height);
+                maxHeight = Math.max(maxHeight, height);
+            }
+        }
+
+        if (minHeight > maxHeight) {
+            // El rayo no tocó nada: suelo plano en y = 0
+            minHeight = maxHeight = 0f;
+        }
+        // Los puntos sin suelo bajan al punto más bajo encontrado
+        for (int i = 0; i < heights.length; i++) {
+            if (!hit[i]) heights[i] = minHeight;
+        }
+
+        HeightfieldCollisionShape heightfield =
+            new HeightfieldCollisionShape(heights, new Vector3f(spacing, 1f, spacing));
+        // El margen engorda la superficie: se baja lo que crece respecto al margen por defecto,
+        // así el jugador se apoya a la misma altura que sobre la malla
+        float marginOffset = Constants.GROUND_HEIGHTFIELD_COLLISION_MARGIN - heightfield.getMargin();
+        heightfield.setMargin(Constants.GROUND_HEIGHTFIELD_COLLISION_MARGIN);
+
+        // Bullet centra el heightfield en X/Z; en Y, HeightfieldCollisionShape usa
+        // límites simétricos (-max(|min|,|max|)..+max) y cada altura h queda en y = h
+        CompoundCollisionShape shape = new CompoundCollisionShape();
+        shape.addChildShape(heightfield, new Vector3f(
+            Constants.getMapCenterX(),
+            -marginOffset,
+            Constants.getMapCenterZ()));
+
+        System.out.println("✅ Heightfield " + size + "x" + size + " generado (altura "
+            + String.format("%.2f..%.2f", minHeight, maxHeight) + ")");
+        return shape;
+    }
+
+    /**
+     * Una caja por geometría de model, en el espacio local de model (igual que
+     * CollisionShapeFactory.createMeshShape). Se ignoran las piezas más pequeñas que minExtent.
+     */
+    public static CompoundCollisionShape buildBoxCompound(Spatial model, float minExtent) {
+        CompoundCollisionShape shape = new CompoundCollisionShape();
+        int boxes = addGeometryBoxes(model, model, shape, minExtent);
+
+        System.out.println("✅ Proxy de " + model.getName() + " generado con " + boxes + " cajas");
+        return shape;
+    }
+
+    private static int addGeometryBoxes(Spatial root, Spatial spatial, CompoundCollisionShape shape, float minExtent) {
+        if (spatial instanceof Node node) {
+            int count = 0;
+            for (Spatial child : node.getChildren()) {
+                count += addGeometryBoxes(root, child, shape, minExtent);
+            }
+            return count;
+        }
+
+        if (!(spatial instanceof Geometry geometry)) return 0;
+
+        BoundingVolume modelBound = geometry.getMesh().getBound();
+        if (!(modelBound instanceof BoundingBox)) return 0;
+
+        BoundingBox box = (BoundingBox) modelBound.transform(relativeTransform(root, geometry), new BoundingBox());
+        if (Math.max(box.getXExtent(), Math.max(box.getYExtent(), box.getZExtent())) < minExtent) {
+            return 0;
+        }
+
+        Vector3f halfExtents = new Vector3f(
+            Math.max(box.getXExtent(), minExtent),
+            Math.max(box.getYExtent(), minExtent),
+            Math.max(box.getZExtent(), minExtent));
+        shape.addChildShape(new BoxCollisionShape(halfExtents), box.getCenter().clone());
+        return 1;
+    }
+
+    /**
+     * Transformación de spatial relativa a root (sin la transformación propia de root).
+     */
+    private static Transform relativeTransform(Spatial root, Spatial spatial) {
+        if (spatial == root) return new Transform();
+
+        Transform transform = spatial.getLocalTransform().clone();
+        for (Node parent = spatial.getParent(); parent != null && parent != root; parent = parent.getParent()) {
+            transform.combineWithParent(parent.getLocalTransform());
+        }
+        return transform;
+    }
+}
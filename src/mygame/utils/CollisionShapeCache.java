@@ -0,0 +1,178 @@
+package mygame.utils;
+
+import com.jme3.asset.AssetInfo;
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetManager;
+import com.jme3.bullet.collision.shapes.CollisionShape;
+import com.jme3.bullet.util.CollisionShapeFactory;
+import com.jme3.export.Savable;
+import com.jme3.export.binary.BinaryExporter;
+import com.jme3.export.binary.BinaryImporter;
+import com.jme3.math.Transform;
+import com.jme3.scene.Spatial;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Caché en disco de las formas de colisión generadas a partir de los modelos.
+ * Cada fichero guarda una cabecera con versión y una clave que resume el .j3o de origen
+ * (CRC32 y longitud), la transformación aplicada al modelo en código y los parámetros
+ * del generador; si cualquiera cambia, la clave no coincide y la forma se vuelve a generar.
+ * Si cambia el algoritmo de generación hay que subir FORMAT_VERSION.
+ */
+public class CollisionShapeCache {
+    private static final int MAGIC = 0x4E425343; // "NBSC"
+    private static final int FORMAT_VERSION = 3;
+
+    private final AssetManager assetManager;
+    private final File cacheDir;
+
+    public CollisionShapeCache(AssetManager assetManager) {
+        this(assetManager, new File(Constants.COLLISION_SHAPE_CACHE_DIR));
+    }
+
+    public CollisionShapeCache(AssetManager assetManager, File cacheDir) {
+        this.assetManager = assetManager;
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Forma de malla de model; la lee de la caché si la clave coincide y si no
+     * la genera con CollisionShapeFactory y la guarda.
+     */
+    public CollisionShape getMeshShape(String modelPath, Spatial model) {
+        return getShape(modelPath, model, "mesh", () -> CollisionShapeFactory.createMeshShape(model));
+    }
+
+    /**
+     * Forma generada por builder a partir de model, cargado de modelPath. variant
+     * distingue varias formas del mismo modelo (malla completa, proxy de cajas...)
+     * y parameters son los valores que recibe builder: entran en la clave junto con
+     * la transformación local de model, así que cambiarlos invalida la caché.
+     */
+    public CollisionShape getShape(String modelPath, Spatial model, String variant,
+                                   Supplier<? extends CollisionShape> builder, Object... parameters) {
+        long start = System.nanoTime();
+        String key = cacheKey(modelPath, model, variant, parameters);
+        File cacheFile = new File(cacheDir, cacheFileName(modelPath, variant));
+
+        if (key != null) {
+            CollisionShape cached = readShape(cacheFile, key);
+            if (cached != null) {
+                System.out.println("✅ Forma de colisión '" + variant + "' de " + modelPath + " leída de caché en "
+                    + elapsedMillis(start) + " ms");
+                return cached;
+            }
+        }
+
+        CollisionShape shape = builder.get();
+        System.out.println("✅ Forma de colisión '" + variant + "' de " + modelPath + " generada en "
+            + elapsedMillis(start) + " ms");
+
+        if (key != null) {
+            writeShape(cacheFile, key, shape);
+        }
+        return shape;
+    }
+
+    private CollisionShape readShape(File cacheFile, String expectedKey) {
+        if (!cacheFile.isFile()) return null;
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(cacheFile))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            if (!expectedKey.equals(in.readUTF())) {
+                System.out.println("Caché de colisión obsoleta: " + cacheFile.getName());
+                return null;
+            }
+
+            BinaryImporter importer = BinaryImporter.getInstance();
+            importer.setAssetManager(assetManager);
+            Savable savable = importer.load(in);
+            return savable instanceof CollisionShape ? (CollisionShape) savable : null;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("❌ Error leyendo caché de colisión " + cacheFile.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeShape(File cacheFile, String key, CollisionShape shape) {
+        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+            System.out.println("❌ No se pudo crear la carpeta de caché " + cacheDir);
+            return;
+        }
+
+        try {
+            ByteArrayOutputStream shapeBytes = new ByteArrayOutputStream();
+            BinaryExporter.getInstance().save(shape, shapeBytes);
+
+            // Se escribe en un temporal y se renombra para no dejar ficheros a medias
+            File tempFile = new File(cacheDir, cacheFile.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tempFile))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                shapeBytes.writeTo(out);
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("❌ Error guardando caché de colisión " + cacheFile.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Clave de la forma: CRC32 y longitud del fichero del asset, variante, transformación
+     * local de model y parámetros del generador; null si no se puede leer el asset.
+     * CRC32 basta para detectar cambios y, al ser nativo, no pesa con la JVM recién
+     * arrancada (SHA-256 interpretado tardaba unos 60 ms con el mapa de 2 MB).
+     */
+    private String cacheKey(String modelPath, Spatial model, String variant, Object[] parameters) {
+        AssetInfo info = assetManager.locateAsset(new AssetKey<>(modelPath));
+        if (info == null) return null;
+
+        try (InputStream in = info.openStream()) {
+            CRC32 crc = new CRC32();
+            long length = 0;
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                length += read;
+            }
+
+            Transform transform = model.getLocalTransform();
+            StringBuilder key = new StringBuilder()
+                .append(Long.toHexString(crc.getValue())).append(':').append(length)
+                .append('|').append(variant)
+                .append('|').append(transform.getTranslation())
+                .append('|').append(transform.getRotation())
+                .append('|').append(transform.getScale());
+            for (Object parameter : parameters) {
+                key.append('|').append(parameter);
+            }
+            return key.toString();
+        } catch (IOException e) {
+            System.out.println("❌ No se pudo leer " + modelPath + " para la caché de colisión: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String cacheFileName(String modelPath, String variant) {
+        return modelPath.replaceAll("[^A-Za-z0-9._-]", "_") + "." + variant + ".shape";
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
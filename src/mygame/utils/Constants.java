@@ -1,11 +1,27 @@
 package mygame.utils;
 
+import com.jme3.bullet.collision.PhysicsCollisionObject;
 import com.jme3.math.ColorRGBA;
 import com.jme3.math.Vector3f;
 import java.util.Arrays;
 import java.util.List;
 
 public class Constants {
+    // Modelos del escenario y del jugador
+    public static final String MAP_MODEL = "Models/Environment/Mapa.j3o";
+    public static final String CASTLE_MODEL = "Models/Environment/Castillo.j3o";
+    public static final String PLAYER_MODEL = "Models/Characters/KnightCharacter.j3o";
+    public static final String POINTER_MODEL = "Models/Pointers/Pointer.j3o";
+    // Carpeta donde se guardan las formas de colisión ya generadas
+    public static final String COLLISION_SHAPE_CACHE_DIR = "assets/Cache/Collision";
+    // Formas simplificadas (heightfield y cajas) en lugar de las mallas completas
+    public static final boolean USE_COLLISION_PROXIES = true;
+    public static final int GROUND_HEIGHTFIELD_SIZE = 65; // 2^n + 1 puntos por lado
+    public static final float GROUND_HEIGHTFIELD_MARGIN = 1f;
+    // Margen de colisión del heightfield: con el por defecto la cápsula del jugador lo atraviesa al caer
+    public static final float GROUND_HEIGHTFIELD_COLLISION_MARGIN = 0.2f;
+    public static final float CASTLE_PROXY_MIN_EXTENT = 0.05f;
+    
     // Límites del mapa para el jugador (ajusta según tu mapa)
     public static final float MAP_MIN_X = -8f;
     public static final float MAP_MAX_X = 8f;
@@ -29,6 +45,35 @@ public class Constants {
     public static final float WAVE_COUNTDOWN_DURATION = 20f; // Tiempo entre oleadas normales
     public static final float BOSS_COUNTDOWN_DURATION = 8f; // Tiempo más corto para el boss
     public static final float BOSS_WARNING_DURATION = 8f; // Duración del aviso de boss
+    public static final String WAVE_CAMPAIGN_FILE = "Waves/campaign.json"; // Oleadas de la partida
+    public static final String ENDLESS_CAMPAIGN_FILE = "Waves/endless.json"; // Oleadas del modo infinito
+
+    // Modo infinito (curva por defecto; la campaña puede cambiarla en su bloque "endless")
+    public static final int ENDLESS_BASE_COUNT = 90; // Enemigos de la primera oleada infinita
+    public static final float ENDLESS_COUNT_GROWTH = 1.35f; // Multiplicador de enemigos por oleada
+    public static final float ENDLESS_BASE_INTERVAL = 0.4f; // Segundos entre apariciones en la primera
+    public static final float ENDLESS_INTERVAL_DECAY = 0.75f; // Multiplicador del intervalo por oleada
+    public static final float ENDLESS_MIN_INTERVAL = 0.002f; // Ritmo máximo: 500 apariciones por segundo
+    public static final float ENDLESS_HEALTH_GROWTH = 1.08f; // Multiplicador de vida por oleada
+    public static final int ENDLESS_BOSS_EVERY = 5; // Boss cada tantas oleadas (0 = nunca)
+    public static final float ENDLESS_COUNTDOWN = 5f; // Pausa entre oleadas infinitas (se solapan)
+    public static final float ENDLESS_FRAME_BUDGET = 1f / 60f; // Presupuesto de frame para medir capacidad
+    public static final float ENDLESS_CAPACITY_WINDOW = 1f; // Segundos seguidos dentro del presupuesto
+    public static final float CAPACITY_RAMP_MIN_INTERVAL = 1e-5f; // Rampa de capacidad: sin tope práctico de ritmo
+    public static final int CAPACITY_RAMP_STOP_WINDOWS = 3; // La rampa acaba tras tantas ventanas seguidas fuera
+    
+    // Simulación de paso fijo
+    public static final int SIMULATION_TICK_RATE = 60; // Ticks por segundo
+    public static final int SIMULATION_MAX_STEPS_PER_FRAME = 5; // Límite de ticks recuperados por frame
+    
+    // Pool de enemigos (precarga durante el countdown)
+    public static final int ENEMY_POOL_PREWARM_PER_TYPE = 15;
+    public static final int ENEMY_POOL_PREWARM_PER_FRAME = 2;
+    
+    // Simulación de enemigos
+    public static final float ENEMY_ATTACK_INTERVAL = 1.5f; // Segundos entre ataques al castillo
+    public static final float ENEMY_VISIBILITY_RADIUS = 1.5f; // Radio usado para el test de frustum
+    public static final float ENEMY_PROXY_RANGE = 6f; // Radio alrededor del jugador con proxies de colisión
     
     // Controlador de Ataque de jugador 
     public static final float PLAYER_ATTACK_RANGE = 3f;
@@ -53,6 +98,16 @@ public class Constants {
     public static final float FALL_SPEED = 20.0f;
     public static final float GRAVITY = 20.0f;
     
+    // Mundo físico: broadphase AxisSweep3 acotado a los límites del mapa
+    public static final float PHYSICS_WORLD_MARGIN = 5f;
+    public static final float PHYSICS_WORLD_MIN_Y = -10f;
+    public static final float PHYSICS_WORLD_MAX_Y = 20f;
+    
+    // Grupos de colisión: cada actor solo se prueba contra las capas que necesita
+    public static final int COLLISION_GROUP_STATIC = PhysicsCollisionObject.COLLISION_GROUP_01;
+    public static final int COLLISION_GROUP_PLAYER = PhysicsCollisionObject.COLLISION_GROUP_02;
+    public static final int COLLISION_GROUP_ENEMY = PhysicsCollisionObject.COLLISION_GROUP_03;
+    
     // Configuración de cámara
     public static final float CAMERA_MIN_HEIGHT = 15.0f;
     public static final float CAMERA_MAX_HEIGHT = 35.0f;
@@ -68,6 +123,27 @@ public class Constants {
     public static final float ATTACK_TOWER_COOLDOWN = 0.4f;
     public static final float SLOW_TOWER_COOLDOWN = 0.2f;
     public static final float SLOW_TOWER_FACTOR = 0.5f; // Reduce velocidad más significativamente
+    public static final float SLOW_EFFECT_DURATION = 0.6f; // La ralentización dura esto tras salir del alcance
+    
+    // Proyectiles de las torres de ataque
+    public static final float PROJECTILE_SPEED = 15f; // Unidades por segundo
+    public static final float PROJECTILE_LAUNCH_HEIGHT = 1.2f; // Altura de salida sobre la base de la torre
+    public static final float PROJECTILE_MAX_TARGET_SPEED = 4f; // El enemigo más rápido (GHOST_SKULL) alarga la persecución
+    // Vuelo más largo: del alcance más la altura de salida, persiguiendo al más rápido que se aleja (~0.38 s)
+    public static final float PROJECTILE_MAX_FLIGHT_TIME =
+        (ATTACK_TOWER_RANGE + PROJECTILE_LAUNCH_HEIGHT) / (PROJECTILE_SPEED - PROJECTILE_MAX_TARGET_SPEED);
+    public static final float PROJECTILE_TARGET_HEIGHT = 0.5f; // Altura de impacto sobre los pies del enemigo
+    public static final float PROJECTILE_POINT_SIZE = 6f; // Tamaño en píxeles de cada proyectil
+    
+    // Efectos de estado
+    public static final int STATUS_EFFECT_WHEEL_SIZE = 256; // Casillas de la rueda (potencia de 2), una por tick
+    public static final float DOT_PULSE_INTERVAL = 0.5f; // Segundos entre pulsos de daño en el tiempo
+    public static final int ARMOR_SHRED_MAX_STACKS = 5;
+    
+    // Rejilla espacial para la búsqueda de objetivos de las torres
+    public static final float ENEMY_GRID_CELL_SIZE = 1.5f;
+    public static final int ENEMY_GRID_BUCKETS = 1024;
+    public static final float ENEMY_DEATH_ANIMATION_MAX = 2f; // Tope de segundos de cadáver en escena
     
     // Puntos de colocación de torres (evitando los caminos de enemigos)
     public static final Vector3f[] TOWER_PLACEMENT_POINTS = {
@@ -89,6 +165,11 @@ public class Constants {
         new Vector3f(0.7f, 0f, 9f),      
         new Vector3f(0.7f, 0f, 5f), 
     };
+
+    // Slots preasignados de proyectiles: una torre de ataque por punto de colocación, cada
+    // una con los disparos que caben en el vuelo más largo más uno por el redondeo a ticks
+    public static final int PROJECTILE_POOL_SIZE = TOWER_PLACEMENT_POINTS.length
+        * ((int) Math.ceil(PROJECTILE_MAX_FLIGHT_TIME / ATTACK_TOWER_COOLDOWN) + 1);
     
     
     /**